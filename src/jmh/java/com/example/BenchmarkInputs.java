@@ -0,0 +1,103 @@
+package com.example;
+
+import java.util.Random;
+
+/**
+ * Генерация входных данных для бенчмарков с разными распределениями.
+ * Фиксированное зерно дает одинаковые данные между запусками и релизами.
+ */
+final class BenchmarkInputs {
+
+    static final long SEED = 20240601L;
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Колонки R, r, h для распределения:
+     * uniform — R и r равномерно в [1; 100],
+     * catalogue — небольшой набор повторяющихся типоразмеров,
+     * wide — логарифмически широкий диапазон от 1e-3 до 1e6,
+     * dirty — как uniform, но 5% строк некорректны (R <= r или h <= 0)
+     */
+    static double[][] cones(String distribution, int n) {
+        Random random = new Random(SEED);
+        double[] R = new double[n];
+        double[] r = new double[n];
+        double[] h = new double[n];
+        for (int i = 0; i < n; i++) {
+            switch (distribution) {
+                case "catalogue": {
+                    int size = random.nextInt(16);
+                    R[i] = 10 + size * 5;
+                    r[i] = 5 + size * 2;
+                    h[i] = 20 + size;
+                    break;
+                }
+                case "wide": {
+                    double big = Math.pow(10, -3 + random.nextDouble() * 9);
+                    R[i] = big;
+                    r[i] = big * random.nextDouble() * 0.99 + big * 1e-3;
+                    h[i] = Math.pow(10, -3 + random.nextDouble() * 9);
+                    break;
+                }
+                case "uniform":
+                case "dirty": {
+                    double a = 1 + random.nextDouble() * 99;
+                    double b = 1 + random.nextDouble() * 99;
+                    R[i] = Math.max(a, b) + 0.5;
+                    r[i] = Math.min(a, b);
+                    h[i] = 1 + random.nextDouble() * 99;
+                    if ("dirty".equals(distribution) && random.nextInt(20) == 0) {
+                        if (random.nextBoolean()) {
+                            r[i] = R[i];
+                        } else {
+                            h[i] = 0;
+                        }
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Неизвестное распределение " + distribution);
+            }
+        }
+        return new double[][] {R, r, h};
+    }
+
+    /**
+     * Колонки rubles, usdRate, eurRate, commission для распределения:
+     * retail — суммы до 100 тыс. руб., курсы около 75/85;
+     * wholesale — суммы до 1 млрд руб.;
+     * volatile — курсы в широком диапазоне от 1 до 200
+     */
+    static double[][] conversions(String distribution, int n) {
+        Random random = new Random(SEED);
+        double[] rubles = new double[n];
+        double[] usd = new double[n];
+        double[] eur = new double[n];
+        double[] commission = new double[n];
+        for (int i = 0; i < n; i++) {
+            switch (distribution) {
+                case "retail":
+                    rubles[i] = Math.round(random.nextDouble() * 100_000_00) / 100.0;
+                    usd[i] = 70 + random.nextDouble() * 10;
+                    eur[i] = 80 + random.nextDouble() * 10;
+                    break;
+                case "wholesale":
+                    rubles[i] = Math.round(random.nextDouble() * 1_000_000_000_00L) / 100.0;
+                    usd[i] = 70 + random.nextDouble() * 10;
+                    eur[i] = 80 + random.nextDouble() * 10;
+                    break;
+                case "volatile":
+                    rubles[i] = Math.round(random.nextDouble() * 100_000_00) / 100.0;
+                    usd[i] = 1 + random.nextDouble() * 199;
+                    eur[i] = 1 + random.nextDouble() * 199;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестное распределение " + distribution);
+            }
+            commission[i] = random.nextInt(301) / 100.0;
+        }
+        return new double[][] {rubles, usd, eur, commission};
+    }
+}
@@ -0,0 +1,132 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки публичных методов CurrencyConverter, режима с таблицей курсов
+ * и сравнение точного режима на long с эталоном на BigDecimal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyConverterBenchmark {
+
+    static final int BATCH = 4096;
+
+    @Param({"retail", "wholesale", "volatile"})
+    public String distribution;
+
+    private final CurrencyConverter converter = new CurrencyConverter();
+    private final RateTable rateTable = new RateTable(new RateSnapshot(1, 75.0, 85.0));
+    private final CurrencyConverter tableConverter = new CurrencyConverter(rateTable);
+    private final FixedPointCurrencyConverter fixed = new FixedPointCurrencyConverter();
+    private final BigDecimalCurrencyConverter bigDecimal =
+            new BigDecimalCurrencyConverter(2, 4, RoundingMode.HALF_EVEN);
+
+    private double[] rubles;
+    private double[] usd;
+    private double[] eur;
+    private double[] commission;
+    private long[] rublesMinor;
+    private long[] usdUnits;
+    private long[] eurUnits;
+    private long[] commissionBasis;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[][] columns = BenchmarkInputs.conversions(distribution, BATCH);
+        rubles = columns[0];
+        usd = columns[1];
+        eur = columns[2];
+        commission = columns[3];
+        rublesMinor = new long[BATCH];
+        usdUnits = new long[BATCH];
+        eurUnits = new long[BATCH];
+        commissionBasis = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            rublesMinor[i] = fixed.toMinorUnits(rubles[i]);
+            usdUnits[i] = fixed.toRateUnits(usd[i]);
+            eurUnits[i] = fixed.toRateUnits(eur[i]);
+            commissionBasis[i] = Math.round(commission[i] * 100);
+        }
+    }
+
+    private int next() {
+        int i = index;
+        index = (i + 1) & (BATCH - 1);
+        return i;
+    }
+
+    @Benchmark
+    public double convertToUSD() {
+        int i = next();
+        return converter.convertToUSD(rubles[i], usd[i]);
+    }
+
+    @Benchmark
+    public double convertToEUR() {
+        int i = next();
+        return converter.convertToEUR(rubles[i], eur[i]);
+    }
+
+    @Benchmark
+    public double conversionLoss() {
+        int i = next();
+        return converter.calculateConversionLoss(rubles[i], usd[i], eur[i]);
+    }
+
+    @Benchmark
+    public double conversionLossWithCommission() {
+        int i = next();
+        return converter.calculateConversionLossWithCommission(rubles[i], usd[i], eur[i], commission[i]);
+    }
+
+    @Benchmark
+    public double conversionLossWithCommissionFromRateTable() {
+        int i = next();
+        return tableConverter.calculateConversionLossWithCommission(rubles[i], commission[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double conversionLossWithCommissionBatch() {
+        double sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            sum += converter.calculateConversionLossWithCommission(rubles[i], usd[i], eur[i], commission[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long fixedPointLossWithCommission() {
+        int i = next();
+        return fixed.calculateConversionLossWithCommission(rublesMinor[i], usdUnits[i], eurUnits[i],
+                commissionBasis[i]);
+    }
+
+    @Benchmark
+    public long bigDecimalLossWithCommission() {
+        int i = next();
+        return bigDecimal.calculateConversionLossWithCommission(rublesMinor[i], usdUnits[i], eurUnits[i],
+                commissionBasis[i]);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки публичных методов GeometryCalculator: одиночные вызовы, полный расчет
+ * с созданием ConeResults и без него, пакетный расчет скалярным и лучшим доступным ядром.
+ * Одиночные вызовы проходят по заранее сгенерированным колонкам, чтобы JIT не свернул константы.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryCalculatorBenchmark {
+
+    static final int BATCH = 4096;
+
+    /**
+     * На распределении dirty скалярные методы отклоняют часть строк: исключение перехватывается
+     * в самом замере, поэтому его стоимость входит в результат
+     */
+    @Param({"uniform", "catalogue", "wide", "dirty"})
+    public String distribution;
+
+    private final GeometryCalculator geometry = new GeometryCalculator();
+    private final GeometryCalculator.MutableConeResults holder = new GeometryCalculator.MutableConeResults();
+    private final CachingGeometryCalculator cached = new CachingGeometryCalculator(1024);
+    private final ConeKernel scalar = ConeKernels.scalar();
+    private final ConeKernel best = ConeKernels.best();
+
+    private double[] R;
+    private double[] r;
+    private double[] h;
+    private double[] volume;
+    private double[] lateral;
+    private double[] total;
+    private double[] generatrix;
+    private int[] invalid;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[][] columns = BenchmarkInputs.cones(distribution, BATCH);
+        R = columns[0];
+        r = columns[1];
+        h = columns[2];
+        volume = new double[BATCH];
+        lateral = new double[BATCH];
+        total = new double[BATCH];
+        generatrix = new double[BATCH];
+        invalid = new int[BATCH];
+    }
+
+    private int next() {
+        int i = index;
+        index = (i + 1) & (BATCH - 1);
+        return i;
+    }
+
+    @Benchmark
+    public double truncatedConeVolume() {
+        int i = next();
+        try {
+            return geometry.calculateTruncatedConeVolume(R[i], r[i], h[i]);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+
+    @Benchmark
+    public double truncatedConeLateralSurfaceArea() {
+        int i = next();
+        try {
+            return geometry.calculateTruncatedConeLateralSurfaceArea(R[i], r[i], h[i]);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+
+    @Benchmark
+    public double truncatedConeTotalSurfaceArea() {
+        int i = next();
+        try {
+            return geometry.calculateTruncatedConeTotalSurfaceArea(R[i], r[i], h[i]);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+
+    @Benchmark
+    public double baseArea() {
+        return geometry.calculateBaseArea(R[next()]);
+    }
+
+    @Benchmark
+    public double generatrix() {
+        int i = next();
+        try {
+            return geometry.calculateGeneratrix(R[i], r[i], h[i]);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Полный расчет с созданием ConeResults на каждый вызов (смотреть gc.alloc.rate.norm)
+     */
+    @Benchmark
+    public GeometryCalculator.ConeResults allConeParametersAllocating() {
+        int i = next();
+        try {
+            return geometry.calculateAllConeParameters(R[i], r[i], h[i]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Полный расчет в переиспользуемый контейнер
+     */
+    @Benchmark
+    public void allConeParametersIntoHolder(Blackhole blackhole) {
+        int i = next();
+        try {
+            geometry.calculateAllConeParameters(R[i], r[i], h[i], holder);
+            blackhole.consume(holder.getTotalSurfaceArea());
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Полный расчет через кэш (на распределении catalogue почти все вызовы — попадания)
+     */
+    @Benchmark
+    public GeometryCalculator.ConeResults allConeParametersCached() {
+        int i = next();
+        try {
+            return cached.calculateAllConeParameters(R[i], r[i], h[i]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int batchScalar() {
+        return scalar.calculate(R, r, h, volume, lateral, total, generatrix, invalid);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int batchBestKernel() {
+        return best.calculate(R, r, h, volume, lateral, total, generatrix, invalid);
+    }
+}
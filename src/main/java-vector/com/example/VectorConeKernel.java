@@ -0,0 +1,106 @@
+package com.example;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторное ядро на jdk.incubator.vector.
+ * Все формулы считаются над полосами DoubleVector, проверка R > r > 0, h > 0
+ * выполняется маской, а хвост массива досчитывается скалярно.
+ * Собирается профилем vector, загружается через ConeKernels.
+ */
+public final class VectorConeKernel implements ConeKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double THIRD_PI = (1.0/3.0) * Math.PI;
+
+    @Override
+    public int calculate(double[] R, double[] r, double[] h,
+                         double[] volume, double[] lateralArea,
+                         double[] totalArea, double[] generatrix,
+                         int[] invalidIndices) {
+        int n = R.length;
+        if (r.length != n || h.length != n) {
+            throw new IllegalArgumentException("Входные колонки R, r, h должны иметь одинаковую длину");
+        }
+        if (volume.length < n || lateralArea.length < n || totalArea.length < n || generatrix.length < n) {
+            throw new IllegalArgumentException("Выходные колонки короче входных данных");
+        }
+        if (invalidIndices != null && invalidIndices.length < n) {
+            throw new IllegalArgumentException("Массив индексов ошибок короче входных данных");
+        }
+
+        DoubleVector nan = DoubleVector.broadcast(SPECIES, Double.NaN);
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(n);
+        int invalidCount = 0;
+        int i = 0;
+
+        for (; i < bound; i += lanes) {
+            DoubleVector big = DoubleVector.fromArray(SPECIES, R, i);
+            DoubleVector small = DoubleVector.fromArray(SPECIES, r, i);
+            DoubleVector height = DoubleVector.fromArray(SPECIES, h, i);
+
+            // NaN в любой колонке дает false во всех сравнениях и попадает в invalid
+            VectorMask<Double> valid = small.compare(VectorOperators.GT, 0.0)
+                    .and(height.compare(VectorOperators.GT, 0.0))
+                    .and(big.compare(VectorOperators.GT, small));
+
+            DoubleVector bigSq = big.mul(big);
+            DoubleVector smallSq = small.mul(small);
+            DoubleVector diff = big.sub(small);
+            DoubleVector sum = big.add(small);
+            DoubleVector l = height.mul(height).add(diff.mul(diff)).sqrt();
+            DoubleVector sumL = sum.mul(l);
+
+            DoubleVector vol = bigSq.add(big.mul(small)).add(smallSq).mul(height).mul(THIRD_PI);
+            DoubleVector lateral = sumL.mul(Math.PI);
+            DoubleVector total = bigSq.add(smallSq).add(sumL).mul(Math.PI);
+
+            nan.blend(vol, valid).intoArray(volume, i);
+            nan.blend(lateral, valid).intoArray(lateralArea, i);
+            nan.blend(total, valid).intoArray(totalArea, i);
+            nan.blend(l, valid).intoArray(generatrix, i);
+
+            if (!valid.allTrue()) {
+                long invalidBits = valid.not().toLong();
+                while (invalidBits != 0) {
+                    int lane = Long.numberOfTrailingZeros(invalidBits);
+                    if (invalidIndices != null) {
+                        invalidIndices[invalidCount] = i + lane;
+                    }
+                    invalidCount++;
+                    invalidBits &= invalidBits - 1;
+                }
+            }
+        }
+
+        GeometryCalculator.MutableConeResults row = new GeometryCalculator.MutableConeResults();
+        for (; i < n; i++) {
+            if (!GeometryCalculator.isValidCone(R[i], r[i], h[i])) {
+                volume[i] = Double.NaN;
+                lateralArea[i] = Double.NaN;
+                totalArea[i] = Double.NaN;
+                generatrix[i] = Double.NaN;
+                if (invalidIndices != null) {
+                    invalidIndices[invalidCount] = i;
+                }
+                invalidCount++;
+                continue;
+            }
+            GeometryCalculator.computeAll(R[i], r[i], h[i], row);
+            volume[i] = row.getVolume();
+            lateralArea[i] = row.getLateralSurfaceArea();
+            totalArea[i] = row.getTotalSurfaceArea();
+            generatrix[i] = row.getGeneratrix();
+        }
+        return invalidCount;
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x64";
+    }
+}
@@ -0,0 +1,49 @@
+package com.example;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Эталонная реализация FixedPointCurrencyConverter на BigDecimal.
+ * Считает те же цепочки с теми же масштабами и округлением; используется для проверки
+ * результатов и как база для сравнения производительности.
+ */
+public class BigDecimalCurrencyConverter {
+
+    private static final BigDecimal COMMISSION_BASIS =
+            BigDecimal.valueOf(FixedPointCurrencyConverter.COMMISSION_BASIS);
+
+    private final int scale;
+    private final int rateScale;
+    private final RoundingMode roundingMode;
+
+    public BigDecimalCurrencyConverter(int scale, int rateScale, RoundingMode roundingMode) {
+        this.scale = scale;
+        this.rateScale = rateScale;
+        this.roundingMode = roundingMode;
+    }
+
+    /**
+     * Расчет потерь с учетом комиссии банка
+     * @param initialRubles исходная сумма в копейках
+     * @param usdRate курс доллара в единицах rateScale
+     * @param eurRate курс евро в единицах rateScale
+     * @param commission комиссия в сотых долях процента (1% = 100)
+     * @return общие потери в копейках
+     */
+    public long calculateConversionLossWithCommission(long initialRubles, long usdRate, long eurRate,
+                                                      long commission) {
+        BigDecimal rubles = BigDecimal.valueOf(initialRubles, scale);
+        BigDecimal usd = BigDecimal.valueOf(usdRate, rateScale);
+        BigDecimal eur = BigDecimal.valueOf(eurRate, rateScale);
+
+        BigDecimal usdAmount = rubles.divide(usd, scale, roundingMode);
+        BigDecimal eurAmount = usdAmount.multiply(usd).divide(eur, scale, roundingMode);
+        BigDecimal finalRubles = eurAmount.multiply(eur).setScale(scale, roundingMode);
+
+        BigDecimal commissionAmount = rubles.multiply(BigDecimal.valueOf(commission))
+                .divide(COMMISSION_BASIS, scale, roundingMode);
+
+        return rubles.subtract(finalRubles).add(commissionAmount).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,284 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэширующий декоратор GeometryCalculator для повторяющихся типоразмеров конусов.
+ *
+ * Ключ — точные битовые представления (R, r, h), значение — готовый ConeResults, поэтому попадание
+ * не создает объектов. Таблица ограничена по размеру и разбита на сегменты со своей блокировкой;
+ * внутри сегмента используется открытая адресация с окном поиска PROBE_WINDOW слотов. Записи
+ * никогда не перемещаются, а при заполненном окне вытесняется запись по алгоритму CLOCK
+ * (второй шанс для недавно использованных).
+ *
+ * Некорректные параметры не кэшируются: исключение выбрасывает декорируемый калькулятор.
+ */
+public class CachingGeometryCalculator extends GeometryCalculator {
+
+    static final int PROBE_WINDOW = 8;
+
+    private final GeometryCalculator delegate;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int segmentShift;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param delegate калькулятор, результаты которого кэшируются
+     * @param maxEntries максимальное количество записей в кэше
+     */
+    public CachingGeometryCalculator(GeometryCalculator delegate, int maxEntries) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Декорируемый калькулятор не задан");
+        }
+        if (maxEntries < PROBE_WINDOW) {
+            throw new IllegalArgumentException("Размер кэша должен быть не меньше " + PROBE_WINDOW);
+        }
+        this.delegate = delegate;
+
+        // Сегментов примерно вдвое больше ядер, но каждый не меньше одного окна поиска
+        int wanted = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2);
+        int count = Math.max(1, Math.min(wanted, Integer.highestOneBit(maxEntries / PROBE_WINDOW)));
+        int slotsPerSegment = Integer.highestOneBit(maxEntries / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(slotsPerSegment);
+        }
+        this.segmentMask = count - 1;
+        // Сегмент выбирается по старшим битам хэша, слот внутри сегмента — по младшим
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    public CachingGeometryCalculator(int maxEntries) {
+        this(new GeometryCalculator(), maxEntries);
+    }
+
+    @Override
+    public ConeResults calculateAllConeParameters(double R, double r, double h) {
+        long kR = Double.doubleToRawLongBits(R);
+        long kr = Double.doubleToRawLongBits(r);
+        long kh = Double.doubleToRawLongBits(h);
+        int hash = hash(kR, kr, kh);
+        Segment segment = segments[(hash >>> segmentShift) & segmentMask];
+
+        ConeResults cached = segment.get(kR, kr, kh, hash);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        ConeResults computed = delegate.calculateAllConeParameters(R, r, h);
+        if (segment.put(kR, kr, kh, hash, computed)) {
+            evictions.increment();
+        }
+        return computed;
+    }
+
+    @Override
+    public MutableConeResults calculateAllConeParameters(double R, double r, double h, MutableConeResults out) {
+        ConeResults results = calculateAllConeParameters(R, r, h);
+        out.set(results.getVolume(), results.getLateralSurfaceArea(),
+                results.getTotalSurfaceArea(), results.getGeneratrix());
+        return out;
+    }
+
+    /**
+     * Пакетные расчеты идут мимо кэша: строки потока редко повторяются,
+     * а заполнение кэша вытеснило бы горячие типоразмеры
+     */
+    @Override
+    public int calculateAllConeParameters(double[] R, double[] r, double[] h,
+                                          double[] volume, double[] lateralArea,
+                                          double[] totalArea, double[] generatrix,
+                                          int[] invalidIndices) {
+        return delegate.calculateAllConeParameters(R, r, h, volume, lateralArea, totalArea, generatrix,
+                invalidIndices);
+    }
+
+    @Override
+    public int calculateAllConeParameters(double[] R, double[] r, double[] h, OffHeapConeResultStore store) {
+        return delegate.calculateAllConeParameters(R, r, h, store);
+    }
+
+    @Override
+    public ValidationFailure checkConeParameters(double R, double r, double h) {
+        return delegate.checkConeParameters(R, r, h);
+    }
+
+    @Override
+    public int validateConeParameters(double[] R, double[] r, double[] h, long[] errorBitmap) {
+        return delegate.validateConeParameters(R, r, h, errorBitmap);
+    }
+
+    @Override
+    public double calculateTruncatedConeVolume(double R, double r, double h) {
+        return delegate.calculateTruncatedConeVolume(R, r, h);
+    }
+
+    @Override
+    public double calculateTruncatedConeLateralSurfaceArea(double R, double r, double h) {
+        return delegate.calculateTruncatedConeLateralSurfaceArea(R, r, h);
+    }
+
+    @Override
+    public double calculateTruncatedConeTotalSurfaceArea(double R, double r, double h) {
+        return delegate.calculateTruncatedConeTotalSurfaceArea(R, r, h);
+    }
+
+    @Override
+    public double calculateBaseArea(double R) {
+        return delegate.calculateBaseArea(R);
+    }
+
+    @Override
+    public double calculateGeneratrix(double R, double r, double h) {
+        return delegate.calculateGeneratrix(R, r, h);
+    }
+
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+
+    /**
+     * Доля попаданий среди всех обращений (0, если обращений не было)
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Емкость кэша в записях
+     */
+    public int capacity() {
+        return segments.length * segments[0].capacity();
+    }
+
+    /**
+     * Текущее количество записей
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Очистка кэша (счетчики не сбрасываются)
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private static int hash(long a, long b, long c) {
+        long x = a * 0x9E3779B97F4A7C15L;
+        x = (x ^ b) * 0xC2B2AE3D27D4EB4FL;
+        x = (x ^ c) * 0x165667B19E3779F9L;
+        return (int) (x ^ (x >>> 32));
+    }
+
+    /**
+     * Сегмент кэша: примитивные массивы ключей и флаги CLOCK под одной блокировкой
+     */
+    private static final class Segment {
+        private final int mask;
+        private final long[] keys;
+        private final ConeResults[] values;
+        private final boolean[] referenced;
+        private int size;
+
+        Segment(int capacity) {
+            this.mask = capacity - 1;
+            this.keys = new long[capacity * 3];
+            this.values = new ConeResults[capacity];
+            this.referenced = new boolean[capacity];
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized ConeResults get(long kR, long kr, long kh, int hash) {
+            int slot = hash & mask;
+            for (int probe = 0; probe < PROBE_WINDOW; probe++, slot = (slot + 1) & mask) {
+                ConeResults value = values[slot];
+                if (value != null && matches(slot, kR, kr, kh)) {
+                    referenced[slot] = true;
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return true, если для новой записи пришлось вытеснить старую
+         */
+        synchronized boolean put(long kR, long kr, long kh, int hash, ConeResults value) {
+            int start = hash & mask;
+            int slot = start;
+            int free = -1;
+            for (int probe = 0; probe < PROBE_WINDOW; probe++, slot = (slot + 1) & mask) {
+                if (values[slot] == null) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                } else if (matches(slot, kR, kr, kh)) {
+                    // Запись уже добавил другой поток
+                    return false;
+                }
+            }
+            if (free >= 0) {
+                store(free, kR, kr, kh, value);
+                size++;
+                return false;
+            }
+
+            // CLOCK внутри окна: снимаем флаг с недавно использованных, вытесняем первую без флага
+            slot = start;
+            for (int probe = 0; ; probe++, slot = (slot + 1) & mask) {
+                if (probe == PROBE_WINDOW) {
+                    slot = start;
+                    probe = 0;
+                }
+                if (!referenced[slot]) {
+                    store(slot, kR, kr, kh, value);
+                    return true;
+                }
+                referenced[slot] = false;
+            }
+        }
+
+        synchronized void clear() {
+            Arrays.fill(values, null);
+            Arrays.fill(referenced, false);
+            size = 0;
+        }
+
+        private boolean matches(int slot, long kR, long kr, long kh) {
+            int base = slot * 3;
+            return keys[base] == kR && keys[base + 1] == kr && keys[base + 2] == kh;
+        }
+
+        private void store(int slot, long kR, long kr, long kh, ConeResults value) {
+            int base = slot * 3;
+            keys[base] = kR;
+            keys[base + 1] = kr;
+            keys[base + 2] = kh;
+            values[slot] = value;
+            referenced[slot] = false;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики горячих путей калькуляторов: счетчики вызовов по методам, счетчики отклоненных
+ * вызовов по причинам и гистограммы задержек. Все счетчики — LongAdder, поэтому запись
+ * из многих потоков не конкурирует за одну ячейку.
+ *
+ * Метрики собирают декораторы InstrumentedGeometryCalculator и InstrumentedCurrencyConverter;
+ * без них затраты нулевые, а выключенные через setEnabled(false) метрики стоят одного
+ * volatile-чтения на вызов.
+ */
+public class CalculatorMetrics implements CalculatorMetricsMXBean {
+
+    /**
+     * Метрики одного метода
+     */
+    public static final class MethodMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public long getCalls() { return calls.sum(); }
+        public LatencyHistogram.Snapshot getLatency() { return latency.snapshot(); }
+    }
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final EnumMap<ValidationFailure, LongAdder> failures = new EnumMap<>(ValidationFailure.class);
+    private volatile boolean enabled = true;
+
+    public CalculatorMetrics() {
+        for (ValidationFailure failure : ValidationFailure.values()) {
+            failures.put(failure, new LongAdder());
+        }
+    }
+
+    /**
+     * Метрики метода по имени (создаются при первом обращении).
+     * Декораторы получают их один раз в конструкторе и дальше не обращаются к словарю.
+     */
+    public MethodMetrics method(String name) {
+        return methods.computeIfAbsent(name, key -> new MethodMetrics());
+    }
+
+    /**
+     * Момент начала замера или 0, если метрики выключены
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Учет завершенного вызова, начатого start()
+     */
+    void record(MethodMetrics method, long start) {
+        if (start != 0L) {
+            method.calls.increment();
+            method.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Учет отклоненного вызова
+     */
+    void recordFailure(ValidationFailure failure) {
+        if (enabled && failure != null) {
+            failures.get(failure).increment();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getValidationFailureCount(ValidationFailure failure) {
+        return failures.get(failure).sum();
+    }
+
+    @Override
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        methods.forEach((name, metrics) -> result.put(name, metrics.getCalls()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getValidationFailureCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        failures.forEach((failure, count) -> result.put(failure.name(), count.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP50Nanos() {
+        Map<String, Long> result = new TreeMap<>();
+        methods.forEach((name, metrics) -> result.put(name, metrics.getLatency().getPercentile(50)));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP99Nanos() {
+        Map<String, Long> result = new TreeMap<>();
+        methods.forEach((name, metrics) -> result.put(name, metrics.getLatency().getPercentile(99)));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLatencyMaxNanos() {
+        Map<String, Long> result = new TreeMap<>();
+        methods.forEach((name, metrics) -> result.put(name, metrics.getLatency().getMax()));
+        return result;
+    }
+
+    /**
+     * Снимок гистограмм задержек по всем методам
+     */
+    public Map<String, LatencyHistogram.Snapshot> getLatencies() {
+        Map<String, LatencyHistogram.Snapshot> result = new TreeMap<>();
+        methods.forEach((name, metrics) -> result.put(name, metrics.getLatency()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public void reset() {
+        for (MethodMetrics metrics : methods.values()) {
+            metrics.calls.reset();
+            metrics.latency.reset();
+        }
+        for (LongAdder count : failures.values()) {
+            count.reset();
+        }
+    }
+
+    /**
+     * Регистрация в платформенном MBeanServer под именем com.example:type=CalculatorMetrics,name=...
+     * Повторная регистрация под тем же именем заменяет предыдущий объект.
+     * @return имя зарегистрированного MBean
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("com.example:type=CalculatorMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.registerMBean(this, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(this, objectName);
+            }
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать MBean " + name, e);
+        }
+    }
+
+    /**
+     * Снятие регистрации MBean (отсутствующее имя игнорируется)
+     */
+    public static void unregisterMBean(ObjectName objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось снять регистрацию MBean " + objectName, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example;
+
+import java.util.Map;
+
+/**
+ * JMX-представление CalculatorMetrics
+ */
+public interface CalculatorMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Количество вызовов по методам
+     */
+    Map<String, Long> getCallCounts();
+
+    /**
+     * Количество отклоненных вызовов по причинам
+     */
+    Map<String, Long> getValidationFailureCounts();
+
+    /**
+     * Медиана задержки по методам, нс
+     */
+    Map<String, Long> getLatencyP50Nanos();
+
+    /**
+     * 99-й перцентиль задержки по методам, нс
+     */
+    Map<String, Long> getLatencyP99Nanos();
+
+    /**
+     * Максимальная задержка по методам, нс
+     */
+    Map<String, Long> getLatencyMaxNanos();
+
+    void reset();
+}
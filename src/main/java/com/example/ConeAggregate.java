@@ -0,0 +1,71 @@
+package com.example;
+
+/**
+ * Агрегаты по набору конусов: сумма, минимум и максимум объема и полной площади,
+ * количество корректных и некорректных строк.
+ * Частичные агрегаты отдельных блоков объединяются методом merge.
+ */
+public class ConeAggregate {
+    private long count;
+    private long invalidCount;
+    private double volumeSum;
+    private double volumeMin = Double.POSITIVE_INFINITY;
+    private double volumeMax = Double.NEGATIVE_INFINITY;
+    private double areaSum;
+    private double areaMin = Double.POSITIVE_INFINITY;
+    private double areaMax = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Учет одного корректного конуса
+     * @param volume объем
+     * @param totalArea полная площадь поверхности
+     */
+    public void add(double volume, double totalArea) {
+        count++;
+        volumeSum += volume;
+        if (volume < volumeMin) volumeMin = volume;
+        if (volume > volumeMax) volumeMax = volume;
+        areaSum += totalArea;
+        if (totalArea < areaMin) areaMin = totalArea;
+        if (totalArea > areaMax) areaMax = totalArea;
+    }
+
+    /**
+     * Учет некорректной строки
+     */
+    public void addInvalid() {
+        invalidCount++;
+    }
+
+    /**
+     * Объединение с агрегатом другого блока
+     * @return this
+     */
+    public ConeAggregate merge(ConeAggregate other) {
+        count += other.count;
+        invalidCount += other.invalidCount;
+        volumeSum += other.volumeSum;
+        volumeMin = Math.min(volumeMin, other.volumeMin);
+        volumeMax = Math.max(volumeMax, other.volumeMax);
+        areaSum += other.areaSum;
+        areaMin = Math.min(areaMin, other.areaMin);
+        areaMax = Math.max(areaMax, other.areaMax);
+        return this;
+    }
+
+    public long getCount() { return count; }
+    public long getInvalidCount() { return invalidCount; }
+    public double getVolumeSum() { return volumeSum; }
+    public double getVolumeMin() { return volumeMin; }
+    public double getVolumeMax() { return volumeMax; }
+    public double getAreaSum() { return areaSum; }
+    public double getAreaMin() { return areaMin; }
+    public double getAreaMax() { return areaMax; }
+
+    @Override
+    public String toString() {
+        return String.format("Конусов: %d, некорректных: %d, объем: сумма %.2f [%.2f; %.2f], " +
+                        "площадь: сумма %.2f [%.2f; %.2f]",
+                count, invalidCount, volumeSum, volumeMin, volumeMax, areaSum, areaMin, areaMax);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example;
+
+/**
+ * Обратные задачи для усеченного конуса: подбор высоты h или радиуса меньшего основания r
+ * под заданный объем или полную площадь поверхности при фиксированных остальных измерениях.
+ *
+ * Высота по объему, высота по площади и радиус по объему находятся в замкнутой форме.
+ * Радиус по полной площади ищется методом Ньютона с защитой бисекцией: площадь строго возрастает
+ * по r на (0, R), поэтому корень всегда остается в сужающемся отрезке и находится за несколько итераций.
+ *
+ * Одиночные методы бросают IllegalArgumentException, если решения нет; пакетные методы пишут
+ * для таких целей NaN, возвращают их количество и не создают объектов.
+ */
+public class ConeDimensionSolver {
+
+    private static final int MAX_ITERATIONS = 64;
+    private static final double RELATIVE_TOLERANCE = 1e-14;
+
+    /**
+     * Высота, при которой объем равен volume
+     * Формула: h = 3V / (π (R² + R*r + r²))
+     */
+    public double solveHeightForVolume(double R, double r, double volume) {
+        return require(heightForVolume(R, r, volume), "Объем должен быть положительным, а радиусы удовлетворять R > r > 0");
+    }
+
+    /**
+     * Высота, при которой полная площадь равна totalArea
+     * Формула: l = (S/π - R² - r²) / (R + r), h = √(l² - (R - r)²)
+     */
+    public double solveHeightForTotalArea(double R, double r, double totalArea) {
+        return require(heightForTotalArea(R, r, totalArea),
+                "Площадь должна превышать площадь вырожденного конуса с h = 0, а радиусы удовлетворять R > r > 0");
+    }
+
+    /**
+     * Радиус меньшего основания, при котором объем равен volume
+     * Формула: r = (√(12V/(πh) - 3R²) - R) / 2, решение существует при πhR²/3 < V < πhR²
+     */
+    public double solveSmallRadiusForVolume(double R, double h, double volume) {
+        return require(smallRadiusForVolume(R, h, volume), "Объем вне диапазона, достижимого при 0 < r < R");
+    }
+
+    /**
+     * Радиус меньшего основания, при котором полная площадь равна totalArea
+     */
+    public double solveSmallRadiusForTotalArea(double R, double h, double totalArea) {
+        return require(smallRadiusForTotalArea(R, h, totalArea), "Площадь вне диапазона, достижимого при 0 < r < R");
+    }
+
+    /**
+     * Пакетный подбор высоты по объемам
+     * @return количество целей без решения (для них в heights записан NaN)
+     */
+    public int solveHeightForVolume(double R, double r, double[] volumes, double[] heights) {
+        checkColumns(volumes, heights);
+        int unsolved = 0;
+        for (int i = 0; i < volumes.length; i++) {
+            double h = heightForVolume(R, r, volumes[i]);
+            heights[i] = h;
+            if (Double.isNaN(h)) unsolved++;
+        }
+        return unsolved;
+    }
+
+    /**
+     * Пакетный подбор высоты по полным площадям
+     * @return количество целей без решения (для них в heights записан NaN)
+     */
+    public int solveHeightForTotalArea(double R, double r, double[] totalAreas, double[] heights) {
+        checkColumns(totalAreas, heights);
+        int unsolved = 0;
+        for (int i = 0; i < totalAreas.length; i++) {
+            double h = heightForTotalArea(R, r, totalAreas[i]);
+            heights[i] = h;
+            if (Double.isNaN(h)) unsolved++;
+        }
+        return unsolved;
+    }
+
+    /**
+     * Пакетный подбор радиуса меньшего основания по объемам
+     * @return количество целей без решения (для них в radii записан NaN)
+     */
+    public int solveSmallRadiusForVolume(double R, double h, double[] volumes, double[] radii) {
+        checkColumns(volumes, radii);
+        int unsolved = 0;
+        for (int i = 0; i < volumes.length; i++) {
+            double r = smallRadiusForVolume(R, h, volumes[i]);
+            radii[i] = r;
+            if (Double.isNaN(r)) unsolved++;
+        }
+        return unsolved;
+    }
+
+    /**
+     * Пакетный подбор радиуса меньшего основания по полным площадям
+     * @return количество целей без решения (для них в radii записан NaN)
+     */
+    public int solveSmallRadiusForTotalArea(double R, double h, double[] totalAreas, double[] radii) {
+        checkColumns(totalAreas, radii);
+        int unsolved = 0;
+        for (int i = 0; i < totalAreas.length; i++) {
+            double r = smallRadiusForTotalArea(R, h, totalAreas[i]);
+            radii[i] = r;
+            if (Double.isNaN(r)) unsolved++;
+        }
+        return unsolved;
+    }
+
+    static double heightForVolume(double R, double r, double volume) {
+        if (!(R > r && r > 0 && volume > 0) || Double.isInfinite(volume)) {
+            return Double.NaN;
+        }
+        return 3.0 * volume / (Math.PI * (R*R + R*r + r*r));
+    }
+
+    static double heightForTotalArea(double R, double r, double totalArea) {
+        if (!(R > r && r > 0 && totalArea > 0) || Double.isInfinite(totalArea)) {
+            return Double.NaN;
+        }
+        double diff = R - r;
+        double l = (totalArea / Math.PI - R*R - r*r) / (R + r);
+        if (!(l > diff)) {
+            return Double.NaN;
+        }
+        // (l - d)(l + d) точнее, чем l² - d², когда l близка к d
+        return Math.sqrt((l - diff) * (l + diff));
+    }
+
+    static double smallRadiusForVolume(double R, double h, double volume) {
+        if (!(R > 0 && h > 0 && volume > 0) || Double.isInfinite(R) || Double.isInfinite(h)) {
+            return Double.NaN;
+        }
+        double k = 3.0 * volume / (Math.PI * h);
+        // r² + R*r + R² - k = 0, корень на (0, R) существует при R² < k < 3R²
+        if (!(k > R*R && k < 3*R*R)) {
+            return Double.NaN;
+        }
+        // Форма без вычитания близких чисел: r = (k - R²) / ((R + √(4k - 3R²)) / 2)
+        double root = Math.sqrt(4*k - 3*R*R);
+        return 2 * (k - R*R) / (R + root);
+    }
+
+    static double smallRadiusForTotalArea(double R, double h, double totalArea) {
+        if (!(R > 0 && h > 0 && totalArea > 0) || Double.isInfinite(R) || Double.isInfinite(h)) {
+            return Double.NaN;
+        }
+        double target = totalArea / Math.PI;
+        double lowValue = R*R + R*Math.sqrt(h*h + R*R);
+        double highValue = 2*R*R + 2*R*h;
+        if (!(target > lowValue && target < highValue)) {
+            return Double.NaN;
+        }
+
+        double lo = 0;
+        double hi = R;
+        // Начальное приближение — линейная интерполяция между концами отрезка
+        double x = R * (target - lowValue) / (highValue - lowValue);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double diff = R - x;
+            double l = Math.sqrt(h*h + diff*diff);
+            double g = R*R + x*x + (R + x)*l - target;
+            if (g == 0) {
+                return x;
+            }
+            if (g < 0) lo = x; else hi = x;
+            // g'(r) = 2r + (h² + 2r² - 2Rr) / l > 0 на (0, R)
+            double derivative = 2*x + (h*h + 2*x*x - 2*R*x) / l;
+            double next = x - g / derivative;
+            if (!(next > lo && next < hi)) {
+                next = 0.5 * (lo + hi);
+            }
+            if (Math.abs(next - x) <= RELATIVE_TOLERANCE * R) {
+                return next;
+            }
+            x = next;
+        }
+        return x;
+    }
+
+    private static void checkColumns(double[] targets, double[] out) {
+        if (out.length < targets.length) {
+            throw new IllegalArgumentException("Выходная колонка короче входных данных");
+        }
+    }
+
+    private static double require(double value, String message) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException(message);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Пакетный расчет конусов над бинарными файлами, отображенными в память.
+ *
+ * Формат входной записи (little-endian, без заголовка): R, r, h — три double, 24 байта.
+ * Формат выходной записи: объем, площадь боковой поверхности, полная площадь,
+ * образующая — четыре double, 32 байта. Запись i выходного файла соответствует записи i входного,
+ * для некорректных строк все четыре значения равны NaN.
+ *
+ * Файлы обрабатываются окнами, выровненными по границе записи, поэтому размер файла
+ * не ограничен одним отображением в 2 ГБ. На запись не создается ни одного объекта.
+ */
+public class ConeFileProcessor {
+
+    public static final int INPUT_RECORD_SIZE = 3 * Double.BYTES;
+    public static final int OUTPUT_RECORD_SIZE = 4 * Double.BYTES;
+
+    /**
+     * Число записей в одном окне по умолчанию: выходное окно чуть меньше 2 ГБ
+     */
+    static final int DEFAULT_WINDOW_RECORDS = Integer.MAX_VALUE / OUTPUT_RECORD_SIZE;
+
+    private final int windowRecords;
+
+    public ConeFileProcessor() {
+        this(DEFAULT_WINDOW_RECORDS);
+    }
+
+    /**
+     * @param windowRecords количество записей в одном отображаемом окне
+     */
+    ConeFileProcessor(int windowRecords) {
+        if (windowRecords <= 0 || windowRecords > DEFAULT_WINDOW_RECORDS) {
+            throw new IllegalArgumentException("Размер окна должен быть от 1 до " + DEFAULT_WINDOW_RECORDS + " записей");
+        }
+        this.windowRecords = windowRecords;
+    }
+
+    /**
+     * Расчет всех записей входного файла с записью результатов в выходной файл
+     * @param input файл с записями (R, r, h)
+     * @param output файл результатов (создается или перезаписывается)
+     * @return агрегаты по всем записям
+     */
+    public ConeAggregate process(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            if (size % INPUT_RECORD_SIZE != 0) {
+                throw new IllegalArgumentException("Размер входного файла не кратен размеру записи "
+                        + INPUT_RECORD_SIZE + " байт");
+            }
+            long records = size / INPUT_RECORD_SIZE;
+
+            ConeAggregate aggregate = new ConeAggregate();
+            GeometryCalculator.MutableConeResults row = new GeometryCalculator.MutableConeResults();
+
+            for (long first = 0; first < records; first += windowRecords) {
+                int count = (int) Math.min(windowRecords, records - first);
+                MappedByteBuffer src = in.map(FileChannel.MapMode.READ_ONLY,
+                        first * INPUT_RECORD_SIZE, (long) count * INPUT_RECORD_SIZE);
+                MappedByteBuffer dst = out.map(FileChannel.MapMode.READ_WRITE,
+                        first * OUTPUT_RECORD_SIZE, (long) count * OUTPUT_RECORD_SIZE);
+                src.order(ByteOrder.LITTLE_ENDIAN);
+                dst.order(ByteOrder.LITTLE_ENDIAN);
+
+                for (int i = 0; i < count; i++) {
+                    int srcPos = i * INPUT_RECORD_SIZE;
+                    int dstPos = i * OUTPUT_RECORD_SIZE;
+                    double R = src.getDouble(srcPos);
+                    double r = src.getDouble(srcPos + Double.BYTES);
+                    double h = src.getDouble(srcPos + 2 * Double.BYTES);
+
+                    if (!GeometryCalculator.isValidCone(R, r, h)) {
+                        aggregate.addInvalid();
+                        dst.putDouble(dstPos, Double.NaN);
+                        dst.putDouble(dstPos + Double.BYTES, Double.NaN);
+                        dst.putDouble(dstPos + 2 * Double.BYTES, Double.NaN);
+                        dst.putDouble(dstPos + 3 * Double.BYTES, Double.NaN);
+                        continue;
+                    }
+
+                    GeometryCalculator.computeAll(R, r, h, row);
+                    aggregate.add(row.getVolume(), row.getTotalSurfaceArea());
+                    dst.putDouble(dstPos, row.getVolume());
+                    dst.putDouble(dstPos + Double.BYTES, row.getLateralSurfaceArea());
+                    dst.putDouble(dstPos + 2 * Double.BYTES, row.getTotalSurfaceArea());
+                    dst.putDouble(dstPos + 3 * Double.BYTES, row.getGeneratrix());
+                }
+                dst.force();
+            }
+            return aggregate;
+        }
+    }
+
+    /**
+     * Запись колонок R, r, h во входной файл указанного формата
+     */
+    public static void writeInput(Path file, double[] R, double[] r, double[] h) throws IOException {
+        int n = R.length;
+        if (r.length != n || h.length != n) {
+            throw new IllegalArgumentException("Входные колонки R, r, h должны иметь одинаковую длину");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer dst = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) n * INPUT_RECORD_SIZE);
+            dst.order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < n; i++) {
+                dst.putDouble(R[i]).putDouble(r[i]).putDouble(h[i]);
+            }
+            dst.force();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example;
+
+/**
+ * Пакетное ядро расчета параметров усеченного конуса.
+ * Контракт совпадает с GeometryCalculator#calculateAllConeParameters(double[], ...):
+ * некорректные строки получают NaN во всех выходных колонках, а их индексы
+ * записываются в invalidIndices по возрастанию.
+ */
+public interface ConeKernel {
+
+    /**
+     * Расчет колонок для строк [0, R.length)
+     * @return количество некорректных строк
+     */
+    int calculate(double[] R, double[] r, double[] h,
+                  double[] volume, double[] lateralArea,
+                  double[] totalArea, double[] generatrix,
+                  int[] invalidIndices);
+
+    /**
+     * Название реализации (для логов и бенчмарков)
+     */
+    String name();
+}
@@ -0,0 +1,66 @@
+package com.example;
+
+/**
+ * Выбор пакетного ядра во время выполнения.
+ * Векторное ядро (jdk.incubator.vector) собирается только профилем vector и
+ * требует запуска с --add-modules jdk.incubator.vector. Если класс или модуль
+ * недоступны, используется скалярная реализация GeometryCalculator.
+ */
+public final class ConeKernels {
+
+    static final String VECTOR_KERNEL_CLASS = "com.example.VectorConeKernel";
+
+    private static final ConeKernel SCALAR = new ConeKernel() {
+        private final GeometryCalculator calculator = new GeometryCalculator();
+
+        @Override
+        public int calculate(double[] R, double[] r, double[] h,
+                             double[] volume, double[] lateralArea,
+                             double[] totalArea, double[] generatrix,
+                             int[] invalidIndices) {
+            return calculator.calculateAllConeParameters(R, r, h,
+                    volume, lateralArea, totalArea, generatrix, invalidIndices);
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    };
+
+    private static final ConeKernel BEST = loadVectorKernel();
+
+    private ConeKernels() {
+    }
+
+    /**
+     * Скалярное ядро, доступное всегда
+     */
+    public static ConeKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Самое быстрое доступное ядро: векторное, если его удалось загрузить, иначе скалярное
+     */
+    public static ConeKernel best() {
+        return BEST;
+    }
+
+    /**
+     * Загружено ли векторное ядро
+     */
+    public static boolean isVectorAvailable() {
+        return BEST != SCALAR;
+    }
+
+    private static ConeKernel loadVectorKernel() {
+        try {
+            Class<?> type = Class.forName(VECTOR_KERNEL_CLASS);
+            return (ConeKernel) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Класс не собран или модуль jdk.incubator.vector не подключен
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Генератор нагрузки для ConversionServer: несколько соединений, в каждом запросы отправляются
+ * конвейером с ограничением числа запросов в полете, задержка каждого ответа записывается в гистограмму.
+ *
+ * Запуск из командной строки: port connections requestsPerConnection window
+ */
+public class ConversionLoadGenerator {
+
+    /**
+     * Итоги прогона
+     */
+    public static class Report {
+        private final long requests;
+        private final long errors;
+        private final long elapsedNanos;
+        private final LatencyHistogram.Snapshot latency;
+
+        Report(long requests, long errors, long elapsedNanos, LatencyHistogram.Snapshot latency) {
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+        }
+
+        public long getRequests() { return requests; }
+        public long getErrors() { return errors; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public LatencyHistogram.Snapshot getLatency() { return latency; }
+
+        public double getRequestsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : requests * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Запросов: %d, ошибок: %d, %.0f запр/с, задержка: %s",
+                    requests, errors, getRequestsPerSecond(), latency);
+        }
+    }
+
+    private final int port;
+    private final int connections;
+    private final int requestsPerConnection;
+    private final int window;
+
+    /**
+     * @param port порт сервера на loopback-интерфейсе
+     * @param connections количество параллельных соединений
+     * @param requestsPerConnection запросов в каждом соединении
+     * @param window максимум запросов без ответа в одном соединении
+     */
+    public ConversionLoadGenerator(int port, int connections, int requestsPerConnection, int window) {
+        if (connections <= 0 || requestsPerConnection <= 0 || window <= 0) {
+            throw new IllegalArgumentException("Параметры нагрузки должны быть положительными");
+        }
+        this.port = port;
+        this.connections = connections;
+        this.requestsPerConnection = requestsPerConnection;
+        this.window = window;
+    }
+
+    public Report run() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(connections * 2);
+        try {
+            long start = System.nanoTime();
+            Future<?>[] futures = new Future<?>[connections];
+            for (int c = 0; c < connections; c++) {
+                int seed = c;
+                futures[c] = executor.submit(() -> {
+                    runConnection(seed, executor, histogram, errors);
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            return new Report((long) connections * requestsPerConnection, errors.get(), elapsed,
+                    histogram.snapshot());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runConnection(int seed, ExecutorService executor, LatencyHistogram histogram,
+                               AtomicLong errors) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            AtomicLongArray sentAt = new AtomicLongArray(requestsPerConnection);
+            Semaphore inFlight = new Semaphore(window);
+
+            Future<?> receiver = executor.submit(() -> {
+                for (int k = 0; k < requestsPerConnection; k++) {
+                    int id = (int) in.readLong();
+                    int status = in.readInt();
+                    in.readDouble();
+                    histogram.record(System.nanoTime() - sentAt.get(id));
+                    if (status != ConversionServer.STATUS_OK) {
+                        errors.incrementAndGet();
+                    }
+                    inFlight.release();
+                }
+                return null;
+            });
+
+            Random random = new Random(seed);
+            for (int id = 0; id < requestsPerConnection; id++) {
+                if (!inFlight.tryAcquire()) {
+                    // Окно заполнено: отдаем накопленное и ждем ответов
+                    out.flush();
+                    while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                        if (receiver.isDone()) {
+                            // Прием ответов оборвался (например, разрыв соединения): get() выбросит его ошибку
+                            receiver.get();
+                            throw new IOException("Прием ответов завершился раньше, чем пришли все ответы");
+                        }
+                    }
+                }
+                sentAt.set(id, System.nanoTime());
+                out.writeLong(id);
+                out.writeDouble(Math.round(random.nextDouble() * 100_000_00) / 100.0);
+                out.writeDouble(70 + random.nextDouble() * 10);
+                out.writeDouble(80 + random.nextDouble() * 10);
+                out.writeDouble(random.nextInt(301) / 100.0);
+            }
+            out.flush();
+            receiver.get(60, TimeUnit.SECONDS);
+            socket.shutdownOutput();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int window = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+
+        if (port == 0) {
+            // Без порта поднимаем встроенный сервер в этом же процессе
+            try (ConversionServer server = new ConversionServer(new CurrencyConverter(), 0, 512, 100)) {
+                System.out.println(new ConversionLoadGenerator(server.getPort(), connections, requests, window).run());
+            }
+        } else {
+            System.out.println(new ConversionLoadGenerator(port, connections, requests, window).run());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example;
+
+/**
+ * Инкрементальные итоги потерь при конвертации за скользящие окна 1 минута, 1 час и 24 часа.
+ * Потери каждой транзакции считаются один раз через calculateConversionLossWithCommission
+ * и добавляются во все окна; запрос итогов не пересчитывает конвертации.
+ */
+public class ConversionLossAggregator {
+
+    public static final long MINUTE = 60_000L;
+    public static final long HOUR = 60 * MINUTE;
+    public static final long DAY = 24 * HOUR;
+
+    /**
+     * Окна отчетов
+     */
+    public enum Window {
+        /** 1 минута, корзины по 1 секунде */
+        LAST_MINUTE(MINUTE, 60),
+        /** 1 час, корзины по 1 минуте */
+        LAST_HOUR(HOUR, 60),
+        /** 24 часа, корзины по 5 минут */
+        LAST_DAY(DAY, 288);
+
+        private final long millis;
+        private final int buckets;
+
+        Window(long millis, int buckets) {
+            this.millis = millis;
+            this.buckets = buckets;
+        }
+    }
+
+    private final CurrencyConverter converter;
+    private final SlidingLossWindow[] windows;
+
+    public ConversionLossAggregator(CurrencyConverter converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException("Конвертер не задан");
+        }
+        this.converter = converter;
+        Window[] values = Window.values();
+        this.windows = new SlidingLossWindow[values.length];
+        for (Window window : values) {
+            windows[window.ordinal()] = new SlidingLossWindow(window.millis, window.buckets);
+        }
+    }
+
+    /**
+     * Учет транзакции
+     * @param timestampMillis время транзакции, мс
+     * @return потери по транзакции
+     */
+    public double addTransaction(long timestampMillis, double initialRubles, double usdRate, double eurRate,
+                                 double commission) {
+        double loss = converter.calculateConversionLossWithCommission(initialRubles, usdRate, eurRate, commission);
+        for (SlidingLossWindow window : windows) {
+            window.add(timestampMillis, loss);
+        }
+        return loss;
+    }
+
+    /**
+     * Итоги окна, заканчивающегося в nowMillis
+     * @throws IllegalArgumentException если nowMillis раньше самой новой учтенной корзины окна
+     */
+    public SlidingLossWindow.Stats query(Window window, long nowMillis) {
+        return windows[window.ordinal()].query(nowMillis);
+    }
+}
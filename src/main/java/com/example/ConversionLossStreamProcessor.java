@@ -0,0 +1,336 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Потоковый расчет потерь при конвертации по CSV-выгрузке транзакций.
+ *
+ * Каждая строка входа: rubles,usdRate,eurRate,commission. Для каждой строки в выход пишется
+ * строка loss,runningTotal с двумя знаками после запятой (копейки). Некорректные строки
+ * (не число или параметры, которые отклонил бы CurrencyConverter) не участвуют в итогах,
+ * для них пишется NaN и текущий итог.
+ *
+ * Вход читается блоками в один буфер фиксированного размера, числа разбираются прямо из байтов
+ * без создания строк, поэтому потребление памяти не зависит от размера файла.
+ */
+public class ConversionLossStreamProcessor {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int FIELDS = 4;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+
+    private final CurrencyConverter converter;
+    private final boolean skipHeader;
+    private final int bufferSize;
+
+    private final double[] fields = new double[FIELDS];
+    private final byte[] digits = new byte[20];
+
+    /**
+     * @param converter конвертер, формулы которого используются для расчета
+     * @param skipHeader пропускать ли первую строку (заголовок CSV)
+     */
+    public ConversionLossStreamProcessor(CurrencyConverter converter, boolean skipHeader) {
+        this(converter, skipHeader, DEFAULT_BUFFER_SIZE);
+    }
+
+    ConversionLossStreamProcessor(CurrencyConverter converter, boolean skipHeader, int bufferSize) {
+        if (converter == null) {
+            throw new IllegalArgumentException("Конвертер не задан");
+        }
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Размер буфера должен быть не меньше 64 байт");
+        }
+        this.converter = converter;
+        this.skipHeader = skipHeader;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Итоги обработки потока
+     */
+    public static class Totals {
+        private final long rows;
+        private final long invalidRows;
+        private final double totalRubles;
+        private final double totalLoss;
+
+        public Totals(long rows, long invalidRows, double totalRubles, double totalLoss) {
+            this.rows = rows;
+            this.invalidRows = invalidRows;
+            this.totalRubles = totalRubles;
+            this.totalLoss = totalLoss;
+        }
+
+        public long getRows() { return rows; }
+        public long getInvalidRows() { return invalidRows; }
+        public double getTotalRubles() { return totalRubles; }
+        public double getTotalLoss() { return totalLoss; }
+
+        @Override
+        public String toString() {
+            return String.format("Строк: %d, некорректных: %d, сумма: %.2f, потери: %.2f",
+                    rows, invalidRows, totalRubles, totalLoss);
+        }
+    }
+
+    /**
+     * Обработка всего потока. Потоки не закрываются, выход сбрасывается в конце.
+     * Экземпляр не потокобезопасен: внутренние буферы переиспользуются между вызовами.
+     * @param in CSV-строки транзакций
+     * @param out построчные потери и нарастающий итог (может быть null, тогда считаются только итоги)
+     * @return итоги по всем строкам
+     */
+    public Totals process(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[bufferSize];
+        byte[] outBuf = new byte[bufferSize];
+        int outPos = 0;
+        int start = 0;
+        int end = 0;
+        boolean header = skipHeader;
+        boolean eof = false;
+
+        long rows = 0;
+        long invalidRows = 0;
+        double totalRubles = 0;
+        double totalLoss = 0;
+
+        while (true) {
+            int lineEnd = indexOf(buf, start, end, (byte) '\n');
+            if (lineEnd < 0) {
+                if (eof) {
+                    if (start == end) {
+                        break;
+                    }
+                    // Последняя строка без перевода строки
+                    lineEnd = end;
+                } else {
+                    // Переносим хвост незавершенной строки в начало буфера и дочитываем
+                    if (start == 0 && end == buf.length) {
+                        throw new IOException("Строка длиннее буфера " + buf.length + " байт");
+                    }
+                    System.arraycopy(buf, start, buf, 0, end - start);
+                    end -= start;
+                    start = 0;
+                    int read = in.read(buf, end, buf.length - end);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        end += read;
+                    }
+                    continue;
+                }
+            }
+
+            int lineStart = start;
+            int lineLimit = lineEnd;
+            start = Math.min(lineEnd + 1, end);
+            if (lineLimit > lineStart && buf[lineLimit - 1] == '\r') {
+                lineLimit--;
+            }
+            if (header) {
+                header = false;
+                continue;
+            }
+            if (lineLimit == lineStart) {
+                continue;
+            }
+
+            rows++;
+            double loss = Double.NaN;
+            if (parseFields(buf, lineStart, lineLimit)
+                    && CurrencyConverter.isValidConversion(fields[0], fields[1], fields[2], fields[3])) {
+                loss = converter.calculateConversionLossWithCommission(fields[0], fields[1], fields[2], fields[3]);
+                totalRubles += fields[0];
+                totalLoss += loss;
+            } else {
+                invalidRows++;
+            }
+
+            if (out != null) {
+                // Запас на два числа с разделителями; при нехватке места сбрасываем буфер
+                if (outBuf.length - outPos < 64) {
+                    out.write(outBuf, 0, outPos);
+                    outPos = 0;
+                }
+                outPos = writeAmount(loss, outBuf, outPos);
+                outBuf[outPos++] = ',';
+                outPos = writeAmount(totalLoss, outBuf, outPos);
+                outBuf[outPos++] = '\n';
+            }
+        }
+
+        if (out != null) {
+            out.write(outBuf, 0, outPos);
+            out.flush();
+        }
+        return new Totals(rows, invalidRows, totalRubles, totalLoss);
+    }
+
+    private static int indexOf(byte[] buf, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Разбор четырех полей строки в массив fields
+     * @return false, если полей не четыре или одно из них не число
+     */
+    private boolean parseFields(byte[] buf, int from, int to) {
+        int field = 0;
+        int fieldStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || buf[i] == ',') {
+                if (field == FIELDS) {
+                    return false;
+                }
+                double value = parseDouble(buf, fieldStart, i);
+                if (Double.isNaN(value)) {
+                    return false;
+                }
+                fields[field++] = value;
+                fieldStart = i + 1;
+            }
+        }
+        return field == FIELDS;
+    }
+
+    /**
+     * Разбор десятичного числа вида [-+]digits[.digits][(e|E)[-+]digits] без создания строк
+     * @return значение или NaN, если байты не являются числом
+     */
+    static double parseDouble(byte[] buf, int from, int to) {
+        while (from < to && buf[from] == ' ') from++;
+        while (to > from && buf[to - 1] == ' ') to--;
+        if (from == to) {
+            return Double.NaN;
+        }
+
+        int i = from;
+        boolean negative = false;
+        if (buf[i] == '-' || buf[i] == '+') {
+            negative = buf[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean truncated = false;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            byte b = buf[i];
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (significant < 18) {
+                    if (mantissa != 0 || b != '0') {
+                        significant++;
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else {
+                    truncated = true;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (!anyDigit) {
+            return Double.NaN;
+        }
+
+        if (i < to) {
+            if (buf[i] != 'e' && buf[i] != 'E') {
+                return Double.NaN;
+            }
+            i++;
+            boolean negativeExp = false;
+            if (i < to && (buf[i] == '-' || buf[i] == '+')) {
+                negativeExp = buf[i] == '-';
+                i++;
+            }
+            if (i == to) {
+                return Double.NaN;
+            }
+            int exp = 0;
+            for (; i < to; i++) {
+                byte b = buf[i];
+                if (b < '0' || b > '9') {
+                    return Double.NaN;
+                }
+                if (exp < 10_000) {
+                    exp = exp * 10 + (b - '0');
+                }
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (!truncated && mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+            // Точный случай: мантисса и степень десяти представимы в double без потерь
+            value = exponent >= 0
+                    ? mantissa * POWERS_OF_TEN[exponent]
+                    : mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            value = Double.parseDouble(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+            return value;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Запись суммы с двумя знаками после запятой в байтовый буфер без создания строк
+     * @return новая позиция в буфере
+     */
+    int writeAmount(double value, byte[] out, int pos) {
+        if (Double.isNaN(value)) {
+            System.arraycopy(NAN, 0, out, pos, NAN.length);
+            return pos + NAN.length;
+        }
+        if (Math.abs(value) >= 1e16 || Double.isInfinite(value)) {
+            byte[] text = Double.toString(value).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(text, 0, out, pos, text.length);
+            return pos + text.length;
+        }
+
+        long kopecks = Math.round(value * 100);
+        if (kopecks < 0) {
+            out[pos++] = '-';
+            kopecks = -kopecks;
+        }
+        long whole = kopecks / 100;
+        int cents = (int) (kopecks % 100);
+
+        int len = 0;
+        do {
+            digits[len++] = (byte) ('0' + whole % 10);
+            whole /= 10;
+        } while (whole != 0);
+        while (len > 0) {
+            out[pos++] = digits[--len];
+        }
+        out[pos++] = '.';
+        out[pos++] = (byte) ('0' + cents / 10);
+        out[pos++] = (byte) ('0' + cents % 10);
+        return pos;
+    }
+}
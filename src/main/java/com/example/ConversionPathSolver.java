@@ -0,0 +1,338 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Поиск самого выгодного маршрута конвертации и арбитражных циклов в CurrencyGraph.
+ *
+ * Ребро i -> j имеет вес -ln(crossRate(i, j) * (1 - commission / 100)), поэтому кратчайший путь
+ * дает максимальную итоговую сумму, а цикл отрицательного веса — арбитраж (сумма растет при проходе).
+ * Поиск — SPFA (Bellman-Ford с очередью) над плотной матрицей весов в примитивных массивах.
+ *
+ * После смены курсов вызывается onRatesChanged (или onDirectRateChanged для прямой котировки пары):
+ * веса пересчитываются только для строки и столбца измененной валюты. Если ни одно ребро дерева кратчайших путей не подорожало, следующий запрос
+ * дорелаксирует дерево только от затронутых вершин; иначе дерево строится заново.
+ *
+ * Экземпляр не потокобезопасен.
+ */
+public class ConversionPathSolver {
+
+    /**
+     * Результат поиска маршрута
+     */
+    public static class Route {
+        private final int[] path;
+        private final double factor;
+
+        public Route(int[] path, double factor) {
+            this.path = path;
+            this.factor = factor;
+        }
+
+        /**
+         * Индексы валют по порядку, от исходной к целевой
+         */
+        public int[] getPath() { return path.clone(); }
+
+        /**
+         * Множитель суммы по маршруту с учетом комиссий
+         */
+        public double getFactor() { return factor; }
+
+        /**
+         * Итоговая сумма в целевой валюте
+         */
+        public double convert(double amount) {
+            return amount * factor;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Маршрут %s, множитель %.6f", Arrays.toString(path), factor);
+        }
+    }
+
+    /**
+     * Улучшения пути меньше этой величины (в логарифмах) считаются шумом округления
+     */
+    static final double RELAXATION_EPSILON = 1e-12;
+
+    private static final int NO_SOURCE = -2;
+    private static final int VIRTUAL_SOURCE = -1;
+
+    private final CurrencyGraph graph;
+    private final double keepFactor;
+
+    private int n;
+    private double[] weight = new double[0];
+
+    // Дерево кратчайших путей для последнего источника (VIRTUAL_SOURCE — поиск арбитража)
+    private int treeSource = NO_SOURCE;
+    private boolean treeValid;
+    private double[] dist = new double[0];
+    private int[] pred = new int[0];
+    private int[] hops = new int[0];
+    private int[] queue = new int[0];
+    private boolean[] queued = new boolean[0];
+    private int cycleVertex = -1;
+
+    // Вершины, от которых нужно дорелаксировать дерево после изменения курсов
+    private boolean[] seed = new boolean[0];
+    private boolean anySeed;
+
+    /**
+     * @param graph граф валют
+     * @param commissionPercent комиссия банка за каждую конвертацию, от 0 до 100%
+     */
+    public ConversionPathSolver(CurrencyGraph graph, double commissionPercent) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Граф валют не задан");
+        }
+        if (!(commissionPercent >= 0 && commissionPercent <= 100)) {
+            throw new IllegalArgumentException("Комиссия должна быть от 0 до 100%");
+        }
+        this.graph = graph;
+        this.keepFactor = 1.0 - commissionPercent / 100;
+        rebuild();
+    }
+
+    /**
+     * Учет изменения курсов валюты: пересчитываются только ее строка и столбец весов
+     */
+    public void onRatesChanged(int currency) {
+        if (graph.size() != n) {
+            rebuild();
+            return;
+        }
+        if (currency < 0 || currency >= n) {
+            throw new IllegalArgumentException("Нет валюты с индексом " + currency);
+        }
+        for (int j = 0; j < n; j++) {
+            if (j != currency) {
+                updateEdge(currency, j);
+                updateEdge(j, currency);
+            }
+        }
+    }
+
+    /**
+     * Учет изменения прямой котировки пары: пересчитывается одно ребро
+     */
+    public void onDirectRateChanged(int from, int to) {
+        if (graph.size() != n) {
+            rebuild();
+            return;
+        }
+        checkIndex(from);
+        checkIndex(to);
+        if (from != to) {
+            updateEdge(from, to);
+        }
+    }
+
+    /**
+     * Самый выгодный маршрут между двумя валютами
+     * @throws IllegalStateException если в графе есть арбитражный цикл (выгодного маршрута нет)
+     */
+    public Route findBestRoute(int from, int to) {
+        checkIndex(from);
+        checkIndex(to);
+        solve(from);
+        if (cycleVertex >= 0) {
+            throw new IllegalStateException("Обнаружен арбитражный цикл, кратчайший маршрут не определен");
+        }
+        if (dist[to] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        int length = 1;
+        for (int v = to; v != from; v = pred[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = to, k = length - 1; k >= 0; v = pred[v], k--) {
+            path[k] = v;
+        }
+        return new Route(path, Math.exp(-dist[to]));
+    }
+
+    /**
+     * Поиск арбитражного цикла
+     * @return цикл индексов валют (первая совпадает с последней) или null, если арбитража нет
+     */
+    public int[] findArbitrageCycle() {
+        solve(VIRTUAL_SOURCE);
+        if (cycleVertex < 0) {
+            return null;
+        }
+
+        // Отступаем по предкам n раз, чтобы гарантированно оказаться внутри цикла
+        int v = cycleVertex;
+        for (int k = 0; k < n; k++) {
+            v = pred[v];
+        }
+        int length = 1;
+        for (int u = pred[v]; u != v; u = pred[u]) {
+            length++;
+        }
+        int[] cycle = new int[length + 1];
+        cycle[length] = v;
+        int u = v;
+        for (int k = length - 1; k >= 0; k--) {
+            u = pred[u];
+            cycle[k] = u;
+        }
+        return cycle;
+    }
+
+    /**
+     * Множитель суммы при проходе по циклу с учетом комиссий (больше 1 — арбитраж)
+     */
+    public double cycleFactor(int[] cycle) {
+        double logSum = 0;
+        for (int k = 1; k < cycle.length; k++) {
+            logSum += weight[cycle[k - 1] * n + cycle[k]];
+        }
+        return Math.exp(-logSum);
+    }
+
+    private void rebuild() {
+        n = graph.size();
+        weight = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                weight[i * n + j] = i == j ? 0.0 : edgeWeight(i, j);
+            }
+        }
+        dist = new double[n];
+        pred = new int[n];
+        hops = new int[n];
+        queue = new int[n];
+        queued = new boolean[n];
+        seed = new boolean[n];
+        anySeed = false;
+        treeValid = false;
+    }
+
+    private double edgeWeight(int i, int j) {
+        double factor = graph.crossRate(i, j) * keepFactor;
+        return factor > 0 ? -Math.log(factor) : Double.POSITIVE_INFINITY;
+    }
+
+    private void updateEdge(int i, int j) {
+        int index = i * n + j;
+        double old = weight[index];
+        double updated = edgeWeight(i, j);
+        weight[index] = updated;
+        if (!treeValid || updated == old) {
+            return;
+        }
+        if (updated > old) {
+            // Подорожало ребро дерева — дорелаксация не поможет, нужен полный пересчет
+            if (pred[j] == i) {
+                treeValid = false;
+            }
+        } else {
+            seed[i] = true;
+            anySeed = true;
+        }
+    }
+
+    private void solve(int source) {
+        if (graph.size() != n) {
+            rebuild();
+        }
+        if (treeValid && treeSource == source) {
+            if (!anySeed) {
+                return;
+            }
+            int tail = 0;
+            for (int v = 0; v < n; v++) {
+                if (seed[v] && dist[v] != Double.POSITIVE_INFINITY) {
+                    queue[tail++] = v;
+                    queued[v] = true;
+                }
+            }
+            clearSeeds();
+            spfa(tail);
+            return;
+        }
+
+        clearSeeds();
+        treeSource = source;
+        cycleVertex = -1;
+        Arrays.fill(pred, -1);
+        Arrays.fill(hops, 0);
+        Arrays.fill(queued, false);
+        int tail;
+        if (source == VIRTUAL_SOURCE) {
+            // Виртуальный источник с ребрами нулевого веса во все вершины
+            Arrays.fill(dist, 0.0);
+            for (int v = 0; v < n; v++) {
+                queue[v] = v;
+                queued[v] = true;
+            }
+            tail = n;
+        } else {
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            dist[source] = 0.0;
+            queue[0] = source;
+            queued[source] = true;
+            tail = 1;
+        }
+        treeValid = true;
+        spfa(tail);
+    }
+
+    /**
+     * SPFA с кольцевой очередью; queue[0, count) уже содержит стартовые вершины
+     */
+    private void spfa(int count) {
+        int head = 0;
+        int tail = count % n;
+        int size = count;
+        while (size > 0) {
+            int u = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+
+            double du = dist[u];
+            int row = u * n;
+            for (int v = 0; v < n; v++) {
+                double candidate = du + weight[row + v];
+                if (candidate < dist[v] - RELAXATION_EPSILON) {
+                    dist[v] = candidate;
+                    pred[v] = u;
+                    hops[v] = hops[u] + 1;
+                    if (hops[v] >= n) {
+                        // Путь длиннее n ребер возможен только через цикл отрицательного веса
+                        cycleVertex = v;
+                        treeValid = false;
+                        return;
+                    }
+                    if (!queued[v]) {
+                        queued[v] = true;
+                        queue[tail] = v;
+                        tail = tail + 1 == n ? 0 : tail + 1;
+                        size++;
+                    }
+                }
+            }
+        }
+        cycleVertex = -1;
+    }
+
+    private void clearSeeds() {
+        if (anySeed) {
+            Arrays.fill(seed, false);
+            anySeed = false;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= graph.size()) {
+            throw new IllegalArgumentException("Нет валюты с индексом " + index);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Встроенный сервер расчета потерь при конвертации.
+ *
+ * Протокол (big-endian, поверх TCP): запрос — id (long), rubles, usdRate, eurRate, commission (double),
+ * 40 байт; ответ — id (long), статус (int: 0 — успех, -1 — внутренняя ошибка сервера, иначе номер
+ * ValidationFailure + 1), потери (double), 20 байт. Клиент может отправлять запросы, не дожидаясь ответов; ответы приходят с тем же id.
+ *
+ * У каждого соединения свой поток чтения и свой поток записи (виртуальные, если JVM их поддерживает).
+ * Запросы всех соединений собираются в микропакеты по размеру или по сроку ожидания и считаются одним
+ * вызовом пакетного метода CurrencyConverter. Поток сборки пакетов не делает сетевого ввода-вывода:
+ * ответы кладутся в ограниченную очередь соединения, а поток записи соединения отправляет их и сбрасывает
+ * буфер, когда очередь опустела. Клиент, который не читает ответы, переполняет свою очередь
+ * и отключается, не задерживая остальных.
+ */
+public class ConversionServer implements Closeable {
+
+    static final int REQUEST_SIZE = Long.BYTES + 4 * Double.BYTES;
+    static final int RESPONSE_SIZE = Long.BYTES + Integer.BYTES + Double.BYTES;
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_INTERNAL_ERROR = -1;
+
+    private final CurrencyConverter converter;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final int responseQueueCapacity;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionExecutor;
+    private final BlockingQueue<Request> queue;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private final Thread batcher;
+    private volatile boolean running = true;
+
+    /**
+     * Запуск сервера на loopback-интерфейсе
+     * @param port порт (0 — любой свободный)
+     * @param maxBatchSize максимальный размер микропакета
+     * @param maxDelayMicros сколько ждать добора пакета после первого запроса, мкс
+     */
+    public ConversionServer(CurrencyConverter converter, int port, int maxBatchSize, long maxDelayMicros)
+            throws IOException {
+        this(converter, port, maxBatchSize, maxDelayMicros, maxBatchSize * 64);
+    }
+
+    /**
+     * @param responseQueueCapacity сколько неотправленных ответов может накопиться у одного соединения,
+     *                              прежде чем оно будет закрыто
+     */
+    ConversionServer(CurrencyConverter converter, int port, int maxBatchSize, long maxDelayMicros,
+                     int responseQueueCapacity) throws IOException {
+        if (converter == null) {
+            throw new IllegalArgumentException("Конвертер не задан");
+        }
+        if (maxBatchSize <= 0 || maxDelayMicros < 0) {
+            throw new IllegalArgumentException("Размер пакета должен быть положительным, а задержка неотрицательной");
+        }
+        if (responseQueueCapacity <= 0) {
+            throw new IllegalArgumentException("Емкость очереди ответов должна быть положительной");
+        }
+        this.responseQueueCapacity = responseQueueCapacity;
+        this.converter = converter;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.queue = new ArrayBlockingQueue<>(maxBatchSize * 64);
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.connectionExecutor = newConnectionExecutor();
+
+        this.batcher = new Thread(this::batchLoop, "conversion-batcher");
+        this.batcher.setDaemon(true);
+        this.batcher.start();
+        this.acceptor = new Thread(this::acceptLoop, "conversion-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Исполнитель для соединений: поток на задачу, виртуальный на JDK 21+, иначе обычный из пула
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "conversion-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                connectionExecutor.execute(() -> readLoop(connection));
+                connectionExecutor.execute(() -> writeLoop(connection));
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void readLoop(Connection connection) {
+        try {
+            DataInputStream in = connection.in;
+            while (running) {
+                long id;
+                try {
+                    id = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                Request request = new Request(connection, id,
+                        in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+                connection.pending.incrementAndGet();
+                queue.put(request);
+            }
+        } catch (IOException | InterruptedException e) {
+            // Соединение разорвано или сервер останавливается
+        }
+        connection.inputDone = true;
+        connection.closeIfDone();
+    }
+
+    /**
+     * Отправка ответов соединения: пишет все, что накопилось в очереди, и сбрасывает буфер один раз
+     */
+    private void writeLoop(Connection connection) {
+        try {
+            DataOutputStream out = connection.out;
+            while (true) {
+                Response response = connection.responses.take();
+                int written = 0;
+                while (response != null) {
+                    if (response == Response.CLOSED) {
+                        return;
+                    }
+                    out.writeLong(response.id);
+                    out.writeInt(response.status);
+                    out.writeDouble(response.loss);
+                    written++;
+                    response = connection.responses.poll();
+                }
+                out.flush();
+                connection.pending.addAndGet(-written);
+                connection.closeIfDone();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Соединение разорвано или сервер останавливается
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void batchLoop() {
+        Request[] batch = new Request[maxBatchSize];
+        double[] rubles = new double[maxBatchSize];
+        double[] usdRates = new double[maxBatchSize];
+        double[] eurRates = new double[maxBatchSize];
+        double[] commissions = new double[maxBatchSize];
+        double[] losses = new double[maxBatchSize];
+
+        while (running) {
+            int count;
+            try {
+                count = collect(batch);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            for (int i = 0; i < count; i++) {
+                Request request = batch[i];
+                rubles[i] = request.rubles;
+                usdRates[i] = request.usdRate;
+                eurRates[i] = request.eurRate;
+                commissions[i] = request.commission;
+            }
+            int sent = 0;
+            try {
+                converter.calculateConversionLossWithCommission(rubles, usdRates, eurRates, commissions, losses, count);
+
+                for (; sent < count; sent++) {
+                    Request request = batch[sent];
+                    int status = STATUS_OK;
+                    if (Double.isNaN(losses[sent])) {
+                        ValidationFailure failure = converter.checkConversionParameters(
+                                request.rubles, request.usdRate, request.eurRate, request.commission);
+                        status = failure == null ? STATUS_OK : failure.ordinal() + 1;
+                    }
+                    request.connection.send(new Response(request.id, status, losses[sent]));
+                }
+            } catch (RuntimeException e) {
+                // Ошибка в конвертере отклоняет только этот пакет, поток сборки продолжает работу
+                for (; sent < count; sent++) {
+                    Request request = batch[sent];
+                    request.connection.send(new Response(request.id, STATUS_INTERNAL_ERROR, Double.NaN));
+                }
+            } finally {
+                Arrays.fill(batch, 0, count, null);
+            }
+        }
+    }
+
+    /**
+     * Сборка микропакета: ждем первый запрос без ограничения, затем добираем до maxBatchSize,
+     * но не дольше maxDelayNanos
+     */
+    private int collect(Request[] batch) throws InterruptedException {
+        Request first = queue.take();
+        batch[0] = first;
+        int count = 1 + drain(batch, 1);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (count < batch.length) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch[count++] = next;
+            count += drain(batch, count);
+        }
+        return count;
+    }
+
+    private int drain(Request[] batch, int from) {
+        int drained = 0;
+        Request next;
+        while (from + drained < batch.length && (next = queue.poll()) != null) {
+            batch[from + drained++] = next;
+        }
+        return drained;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        batcher.interrupt();
+        connectionExecutor.shutdownNow();
+        List<Connection> open = new ArrayList<>(connections);
+        for (Connection connection : open) {
+            connection.close();
+        }
+    }
+
+    private static final class Request {
+        final Connection connection;
+        final long id;
+        final double rubles;
+        final double usdRate;
+        final double eurRate;
+        final double commission;
+
+        Request(Connection connection, long id, double rubles, double usdRate, double eurRate, double commission) {
+            this.connection = connection;
+            this.id = id;
+            this.rubles = rubles;
+            this.usdRate = usdRate;
+            this.eurRate = eurRate;
+            this.commission = commission;
+        }
+    }
+
+    private static final class Response {
+        // Метка для потока записи: соединение закрыто
+        static final Response CLOSED = new Response(-1, -1, Double.NaN);
+
+        final long id;
+        final int status;
+        final double loss;
+
+        Response(long id, int status, double loss) {
+            this.id = id;
+            this.status = status;
+            this.loss = loss;
+        }
+    }
+
+    private final class Connection implements Closeable {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        final AtomicInteger pending = new AtomicInteger();
+        final BlockingQueue<Response> responses = new ArrayBlockingQueue<>(responseQueueCapacity);
+        volatile boolean inputDone;
+        private boolean closed;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+        }
+
+        /**
+         * Передача ответа потоку записи без блокировки; при переполнении очереди соединение закрывается
+         */
+        synchronized void send(Response response) {
+            if (closed) {
+                return;
+            }
+            if (!responses.offer(response)) {
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Закрытие после того, как клиент закончил отправку и все ответы записаны
+         */
+        synchronized void closeIfDone() {
+            if (inputDone && pending.get() == 0) {
+                closeQuietly();
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            closeQuietly();
+        }
+
+        private void closeQuietly() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connections.remove(this);
+            // Неотправленные ответы больше не нужны, поток записи получает метку закрытия
+            responses.clear();
+            responses.offer(Response.CLOSED);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Соединение уже разорвано
+            }
+        }
+    }
+}
@@ -8,6 +8,43 @@ package com.example;
  */
 public class CurrencyConverter {
 
+    private final RateTable rateTable;
+    private final ValidationMode validationMode;
+
+    /**
+     * Конвертер без таблицы курсов: курсы передаются в каждый вызов
+     */
+    public CurrencyConverter() {
+        this(null);
+    }
+
+    /**
+     * Конвертер, который по умолчанию берет курсы из текущего снимка таблицы
+     * @param rateTable таблица курсов (может быть null)
+     */
+    public CurrencyConverter(RateTable rateTable) {
+        this(rateTable, ValidationMode.EXCEPTION);
+    }
+
+    /**
+     * @param rateTable таблица курсов (может быть null)
+     * @param validationMode как сообщать о некорректных параметрах
+     */
+    public CurrencyConverter(RateTable rateTable, ValidationMode validationMode) {
+        if (validationMode == null) {
+            throw new IllegalArgumentException("Режим валидации не задан");
+        }
+        this.rateTable = rateTable;
+        this.validationMode = validationMode;
+    }
+
+    /**
+     * Таблица курсов (для декораторов, которым нужно сохранить поведение по умолчанию)
+     */
+    RateTable rateTable() {
+        return rateTable;
+    }
+
     /**
      * Конвертация рублей в доллары
      * @param rubles сумма в рублях
@@ -15,11 +52,11 @@ public class CurrencyConverter {
      * @return сумма в долларах
      */
     public double convertToUSD(double rubles, double usdRate) {
-        if (rubles < 0) {
-            throw new IllegalArgumentException("Сумма в рублях не может быть отрицательной");
+        if (!(rubles >= 0)) {
+            throw failure(ValidationFailure.NEGATIVE_AMOUNT, "Сумма в рублях не может быть отрицательной");
         }
-        if (usdRate <= 0) {
-            throw new IllegalArgumentException("Курс доллара должен быть положительным");
+        if (!(usdRate > 0)) {
+            throw failure(ValidationFailure.BAD_RATE, "Курс доллара должен быть положительным");
         }
         return rubles / usdRate;
     }
@@ -31,11 +68,11 @@ public class CurrencyConverter {
      * @return сумма в евро
      */
     public double convertToEUR(double rubles, double eurRate) {
-        if (rubles < 0) {
-            throw new IllegalArgumentException("Сумма в рублях не может быть отрицательной");
+        if (!(rubles >= 0)) {
+            throw failure(ValidationFailure.NEGATIVE_AMOUNT, "Сумма в рублях не может быть отрицательной");
         }
-        if (eurRate <= 0) {
-            throw new IllegalArgumentException("Курс евро должен быть положительным");
+        if (!(eurRate > 0)) {
+            throw failure(ValidationFailure.BAD_RATE, "Курс евро должен быть положительным");
         }
         return rubles / eurRate;
     }
@@ -48,8 +85,10 @@ public class CurrencyConverter {
      * @return потери в рублях
      */
     public double calculateConversionLoss(double initialRubles, double usdRate, double eurRate) {
-        if (initialRubles < 0 || usdRate <= 0 || eurRate <= 0) {
-            throw new IllegalArgumentException("Неверные параметры конвертации");
+        // Сравнения записаны так, чтобы NaN тоже считался некорректным значением, как в isValidConversion
+        if (!(initialRubles >= 0 && usdRate > 0 && eurRate > 0)) {
+            throw failure(!(initialRubles >= 0) ? ValidationFailure.NEGATIVE_AMOUNT : ValidationFailure.BAD_RATE,
+                    "Неверные параметры конвертации");
         }
 
         // Конвертируем RUB -> USD
@@ -65,6 +104,57 @@ public class CurrencyConverter {
         return initialRubles - finalRubles;
     }
 
+    /**
+     * Проверка параметров расчета потерь с комиссией без выброса исключения
+     * @return true, если calculateConversionLossWithCommission примет эти параметры
+     */
+    static boolean isValidConversion(double initialRubles, double usdRate, double eurRate,
+                                     double commission) {
+        // Сравнения записаны так, чтобы NaN тоже считался некорректным значением
+        return initialRubles >= 0 && usdRate > 0 && eurRate > 0
+                && commission >= 0 && commission <= 100;
+    }
+
+    /**
+     * Проверка параметров расчета потерь с комиссией без исключения
+     * @return причина отказа или null, если параметры корректны
+     */
+    public ValidationFailure checkConversionParameters(double initialRubles, double usdRate, double eurRate,
+                                                       double commission) {
+        return ValidationFailure.ofConversionLoss(initialRubles, usdRate, eurRate, commission);
+    }
+
+    /**
+     * Пакетная проверка без исключений: бит i карты errorBitmap (слово i / 64, бит i % 64)
+     * выставляется для строки, которую отклонил бы calculateConversionLossWithCommission
+     * @param errorBitmap карта ошибок длиной не меньше (rubles.length + 63) / 64
+     * @return количество некорректных строк
+     */
+    public int validateConversionParameters(double[] rubles, double[] usdRates, double[] eurRates,
+                                            double[] commissions, long[] errorBitmap) {
+        int n = rubles.length;
+        if (usdRates.length != n || eurRates.length != n || commissions.length != n) {
+            throw new IllegalArgumentException("Входные колонки должны иметь одинаковую длину");
+        }
+        if (errorBitmap.length < (n + 63) / 64) {
+            throw new IllegalArgumentException("Карта ошибок короче входных данных");
+        }
+        int invalidCount = 0;
+        for (int word = 0, base = 0; base < n; word++, base += 64) {
+            int limit = Math.min(64, n - base);
+            long bits = 0;
+            for (int k = 0; k < limit; k++) {
+                int i = base + k;
+                if (!isValidConversion(rubles[i], usdRates[i], eurRates[i], commissions[i])) {
+                    bits |= 1L << k;
+                }
+            }
+            errorBitmap[word] = bits;
+            invalidCount += Long.bitCount(bits);
+        }
+        return invalidCount;
+    }
+
     /**
      * Расчет потерь с учетом комиссии банка
      * @param initialRubles исходная сумма
@@ -76,8 +166,8 @@ public class CurrencyConverter {
     public double calculateConversionLossWithCommission(double initialRubles,
                                                         double usdRate, double eurRate,
                                                         double commission) {
-        if (commission < 0 || commission > 100) {
-            throw new IllegalArgumentException("Комиссия должна быть от 0 до 100%");
+        if (!(commission >= 0 && commission <= 100)) {
+            throw failure(ValidationFailure.BAD_COMMISSION, "Комиссия должна быть от 0 до 100%");
         }
 
         double conversionLoss = calculateConversionLoss(initialRubles, usdRate, eurRate);
@@ -85,4 +175,113 @@ public class CurrencyConverter {
 
         return conversionLoss + commissionAmount;
     }
-}
\ No newline at end of file
+
+    /**
+     * Пакетный расчет потерь с комиссией для первых count строк колонок.
+     * Исключения не выбрасываются: для строк, которые отклонил бы скалярный метод, в losses пишется NaN.
+     * @return количество некорректных строк
+     */
+    public int calculateConversionLossWithCommission(double[] rubles, double[] usdRates, double[] eurRates,
+                                                     double[] commissions, double[] losses, int count) {
+        if (count < 0 || rubles.length < count || usdRates.length < count || eurRates.length < count
+                || commissions.length < count || losses.length < count) {
+            throw new IllegalArgumentException("Колонки короче количества строк " + count);
+        }
+        int invalidCount = 0;
+        for (int i = 0; i < count; i++) {
+            double initialRubles = rubles[i];
+            double usdRate = usdRates[i];
+            double eurRate = eurRates[i];
+            double commission = commissions[i];
+            if (!isValidConversion(initialRubles, usdRate, eurRate, commission)) {
+                losses[i] = Double.NaN;
+                invalidCount++;
+                continue;
+            }
+            // Та же цепочка, что в calculateConversionLoss, без повторных проверок
+            double usdAmount = initialRubles / usdRate;
+            double eurAmount = usdAmount * (usdRate / eurRate);
+            double finalRubles = eurAmount * eurRate;
+            losses[i] = (initialRubles - finalRubles) + initialRubles * (commission / 100);
+        }
+        return invalidCount;
+    }
+
+    /**
+     * Конвертация рублей в доллары по текущему снимку курсов.
+     * Перегрузки с таблицей курсов финальные: они сводятся к методам с явными курсами,
+     * поэтому декораторам достаточно переопределить только те.
+     */
+    public final double convertToUSD(double rubles) {
+        return convertToUSD(rubles, currentRates());
+    }
+
+    /**
+     * Конвертация рублей в доллары по заданному снимку (для воспроизведения расчетов)
+     */
+    public final double convertToUSD(double rubles, RateSnapshot rates) {
+        return convertToUSD(rubles, rates.getUsdRate());
+    }
+
+    /**
+     * Конвертация рублей в евро по текущему снимку курсов
+     */
+    public final double convertToEUR(double rubles) {
+        return convertToEUR(rubles, currentRates());
+    }
+
+    /**
+     * Конвертация рублей в евро по заданному снимку
+     */
+    public final double convertToEUR(double rubles, RateSnapshot rates) {
+        return convertToEUR(rubles, rates.getEurRate());
+    }
+
+    /**
+     * Расчет потерь при двойной конвертации по текущему снимку курсов
+     */
+    public final double calculateConversionLoss(double initialRubles) {
+        return calculateConversionLoss(initialRubles, currentRates());
+    }
+
+    /**
+     * Расчет потерь при двойной конвертации по заданному снимку.
+     * Оба курса берутся из одного снимка, поэтому расчет согласован даже при параллельной публикации.
+     */
+    public final double calculateConversionLoss(double initialRubles, RateSnapshot rates) {
+        return calculateConversionLoss(initialRubles, rates.getUsdRate(), rates.getEurRate());
+    }
+
+    /**
+     * Расчет потерь с учетом комиссии по текущему снимку курсов
+     */
+    public final double calculateConversionLossWithCommission(double initialRubles, double commission) {
+        return calculateConversionLossWithCommission(initialRubles, currentRates(), commission);
+    }
+
+    /**
+     * Расчет потерь с учетом комиссии по заданному снимку
+     */
+    public final double calculateConversionLossWithCommission(double initialRubles, RateSnapshot rates,
+                                                              double commission) {
+        return calculateConversionLossWithCommission(initialRubles,
+                rates.getUsdRate(), rates.getEurRate(), commission);
+    }
+
+    /**
+     * Исключение для причины отказа в соответствии с режимом валидации
+     */
+    private IllegalArgumentException failure(ValidationFailure reason, String message) {
+        if (validationMode == ValidationMode.STACKLESS_EXCEPTION) {
+            return StacklessValidationException.of(reason);
+        }
+        return new IllegalArgumentException(message);
+    }
+
+    private RateSnapshot currentRates() {
+        if (rateTable == null) {
+            throw new IllegalStateException("Таблица курсов не задана");
+        }
+        return rateTable.current();
+    }
+}
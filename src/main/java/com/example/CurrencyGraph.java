@@ -0,0 +1,245 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Граф конвертации для произвольного набора валют.
+ *
+ * Каждая валюта задается курсами покупки и продажи относительно базовой валюты (рубля):
+ * bid — сколько рублей банк платит за единицу валюты, ask — сколько рублей стоит единица валюты.
+ * Кросс-курс i -> j (единиц j за единицу i) равен bid[i] / ask[j] и хранится в плотной
+ * матрице double[capacity * capacity]. При смене курса одной валюты пересчитываются только
+ * ее строка и столбец (O(n)), а запрос потерь по пути сводится к произведению значений из таблицы.
+ * Банк может котировать пару напрямую (setDirectRate): такой курс заменяет вычисленный кросс-курс
+ * и не пересчитывается при смене курсов валют пары.
+ *
+ * Экземпляр не потокобезопасен; для параллельного чтения курсы можно публиковать через RateTable.
+ */
+public class CurrencyGraph {
+
+    private final int capacity;
+    private final String[] codes;
+    private final double[] bid;
+    private final double[] ask;
+    private final double[] cross;
+    private final boolean[] direct;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private int size;
+
+    /**
+     * @param baseCurrency код базовой валюты (ее курс всегда 1)
+     * @param capacity максимальное количество валют, включая базовую
+     */
+    public CurrencyGraph(String baseCurrency, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Емкость графа должна быть положительной");
+        }
+        this.capacity = capacity;
+        this.codes = new String[capacity];
+        this.bid = new double[capacity];
+        this.ask = new double[capacity];
+        this.cross = new double[capacity * capacity];
+        this.direct = new boolean[capacity * capacity];
+        addCurrency(baseCurrency, 1.0, 1.0);
+    }
+
+    /**
+     * Добавление валюты
+     * @param code код валюты
+     * @param bidRate курс покупки банком (рублей за единицу)
+     * @param askRate курс продажи банком (рублей за единицу)
+     * @return индекс валюты в графе
+     */
+    public int addCurrency(String code, double bidRate, double askRate) {
+        if (code == null) {
+            throw new IllegalArgumentException("Код валюты не задан");
+        }
+        if (indexes.containsKey(code)) {
+            throw new IllegalArgumentException("Валюта " + code + " уже есть в графе");
+        }
+        if (size == capacity) {
+            throw new IllegalStateException("Граф заполнен: " + capacity + " валют");
+        }
+        validateRates(bidRate, askRate);
+        int index = size++;
+        codes[index] = code;
+        indexes.put(code, index);
+        setRates(index, bidRate, askRate);
+        return index;
+    }
+
+    /**
+     * Смена курсов одной валюты с пересчетом ее строки и столбца матрицы
+     */
+    public void updateRates(int index, double bidRate, double askRate) {
+        checkIndex(index);
+        if (index == 0) {
+            throw new IllegalArgumentException("Курс базовой валюты изменить нельзя");
+        }
+        validateRates(bidRate, askRate);
+        setRates(index, bidRate, askRate);
+    }
+
+    public void updateRates(String code, double bidRate, double askRate) {
+        updateRates(indexOf(code), bidRate, askRate);
+    }
+
+    /**
+     * Прямая котировка пары: сколько единиц to банк дает за единицу from
+     */
+    public void setDirectRate(int from, int to, double rate) {
+        checkIndex(from);
+        checkIndex(to);
+        if (from == to) {
+            throw new IllegalArgumentException("Валюты пары должны различаться");
+        }
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Курс пары должен быть положительным");
+        }
+        int cell = from * capacity + to;
+        direct[cell] = true;
+        cross[cell] = rate;
+    }
+
+    /**
+     * Отмена прямой котировки: кросс-курс снова вычисляется через базовую валюту
+     */
+    public void clearDirectRate(int from, int to) {
+        checkIndex(from);
+        checkIndex(to);
+        int cell = from * capacity + to;
+        if (direct[cell]) {
+            direct[cell] = false;
+            cross[cell] = bid[from] / ask[to];
+        }
+    }
+
+    public boolean hasDirectRate(int from, int to) {
+        checkIndex(from);
+        checkIndex(to);
+        return direct[from * capacity + to];
+    }
+
+    /**
+     * Индекс валюты по коду
+     * @throws IllegalArgumentException если валюты нет в графе
+     */
+    public int indexOf(String code) {
+        Integer index = indexes.get(code);
+        if (index == null) {
+            throw new IllegalArgumentException("Нет валюты " + code + " в графе");
+        }
+        return index;
+    }
+
+    public String codeOf(int index) {
+        checkIndex(index);
+        return codes[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getBid(int index) {
+        checkIndex(index);
+        return bid[index];
+    }
+
+    public double getAsk(int index) {
+        checkIndex(index);
+        return ask[index];
+    }
+
+    /**
+     * Кросс-курс: сколько единиц валюты to получается за единицу валюты from
+     */
+    public double crossRate(int from, int to) {
+        checkIndex(from);
+        checkIndex(to);
+        return cross[from * capacity + to];
+    }
+
+    /**
+     * Множитель суммы при проходе по пути конвертации
+     * @param path индексы валют по порядку, не меньше одной
+     */
+    public double pathFactor(int... path) {
+        if (path.length == 0) {
+            throw new IllegalArgumentException("Путь конвертации пуст");
+        }
+        checkIndex(path[0]);
+        double factor = 1.0;
+        for (int k = 1; k < path.length; k++) {
+            checkIndex(path[k]);
+            factor *= cross[path[k - 1] * capacity + path[k]];
+        }
+        return factor;
+    }
+
+    /**
+     * Потери при конвертации суммы по пути, выраженные в исходной валюте.
+     * Если путь не замкнут, итоговая сумма пересчитывается в исходную валюту по средним курсам.
+     * @param amount сумма в валюте path[0]
+     * @param path индексы валют по порядку
+     * @return потери в валюте path[0]
+     */
+    public double calculateConversionLoss(double amount, int... path) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Сумма не может быть отрицательной");
+        }
+        double finalAmount = amount * pathFactor(path);
+        int first = path[0];
+        int last = path[path.length - 1];
+        if (first != last) {
+            finalAmount *= midRate(last) / midRate(first);
+        }
+        return amount - finalAmount;
+    }
+
+    private double midRate(int index) {
+        return (bid[index] + ask[index]) * 0.5;
+    }
+
+    private void setRates(int index, double bidRate, double askRate) {
+        bid[index] = bidRate;
+        ask[index] = askRate;
+
+        // Строка index: продаем index, покупаем j
+        int row = index * capacity;
+        for (int j = 0; j < size; j++) {
+            if (!direct[row + j]) {
+                cross[row + j] = j == index ? 1.0 : bidRate / ask[j];
+            }
+        }
+        // Столбец index: продаем i, покупаем index
+        for (int i = 0; i < size; i++) {
+            int cell = i * capacity + index;
+            if (i != index && !direct[cell]) {
+                cross[cell] = bid[i] / askRate;
+            }
+        }
+    }
+
+    private static void validateRates(double bidRate, double askRate) {
+        if (!(bidRate > 0) || !(askRate > 0)) {
+            throw new IllegalArgumentException("Курсы покупки и продажи должны быть положительными");
+        }
+        if (bidRate > askRate) {
+            throw new IllegalArgumentException("Курс покупки не может быть выше курса продажи");
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Нет валюты с индексом " + index);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Граф валют " + Arrays.toString(Arrays.copyOf(codes, size));
+    }
+}
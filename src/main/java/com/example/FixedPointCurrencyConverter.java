@@ -0,0 +1,195 @@
+package com.example;
+
+import java.math.RoundingMode;
+
+/**
+ * Точный режим CurrencyConverter на целых числах с фиксированной точкой.
+ *
+ * Суммы хранятся в минимальных единицах (копейки, центы) с масштабом scale знаков после запятой,
+ * курсы — в единицах с масштабом rateScale. Каждая конвертация делает одно целочисленное
+ * деление с округлением по заданному RoundingMode, поэтому результат точный и воспроизводимый,
+ * а потери при конвертации — это реальные потери на округлении, а не шум double.
+ * На горячем пути не создается ни BigDecimal, ни других объектов.
+ * Переполнение long приводит к ArithmeticException.
+ */
+public class FixedPointCurrencyConverter {
+
+    /**
+     * Комиссия задается в сотых долях процента: 100% = 10000
+     */
+    public static final long COMMISSION_BASIS = 10_000;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L
+    };
+
+    private final int scale;
+    private final int rateScale;
+    private final long amountUnit;
+    private final long rateUnit;
+    private final RoundingMode roundingMode;
+
+    /**
+     * Копейки/центы, курсы с четырьмя знаками, банковское округление
+     */
+    public FixedPointCurrencyConverter() {
+        this(2, 4, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * @param scale количество знаков после запятой у сумм (0..9)
+     * @param rateScale количество знаков после запятой у курсов (0..9)
+     * @param roundingMode режим округления при делении
+     */
+    public FixedPointCurrencyConverter(int scale, int rateScale, RoundingMode roundingMode) {
+        if (scale < 0 || scale >= POWERS_OF_TEN.length || rateScale < 0 || rateScale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Масштаб должен быть от 0 до " + (POWERS_OF_TEN.length - 1));
+        }
+        if (roundingMode == null) {
+            throw new IllegalArgumentException("Режим округления не задан");
+        }
+        this.scale = scale;
+        this.rateScale = rateScale;
+        this.amountUnit = POWERS_OF_TEN[scale];
+        this.rateUnit = POWERS_OF_TEN[rateScale];
+        this.roundingMode = roundingMode;
+    }
+
+    public int getScale() { return scale; }
+    public int getRateScale() { return rateScale; }
+    public RoundingMode getRoundingMode() { return roundingMode; }
+
+    /**
+     * Перевод суммы в минимальные единицы (для ввода данных, не для горячего пути)
+     */
+    public long toMinorUnits(double amount) {
+        return Math.round(amount * amountUnit);
+    }
+
+    /**
+     * Перевод курса в единицы с масштабом rateScale
+     */
+    public long toRateUnits(double rate) {
+        return Math.round(rate * rateUnit);
+    }
+
+    /**
+     * Перевод минимальных единиц обратно в double (для вывода)
+     */
+    public double fromMinorUnits(long minorUnits) {
+        return (double) minorUnits / amountUnit;
+    }
+
+    /**
+     * Конвертация рублей в доллары
+     * @param rubles сумма в копейках
+     * @param usdRate курс доллара в единицах rateScale
+     * @return сумма в центах
+     */
+    public long convertToUSD(long rubles, long usdRate) {
+        if (rubles < 0) {
+            throw new IllegalArgumentException("Сумма в рублях не может быть отрицательной");
+        }
+        if (usdRate <= 0) {
+            throw new IllegalArgumentException("Курс доллара должен быть положительным");
+        }
+        return divide(Math.multiplyExact(rubles, rateUnit), usdRate);
+    }
+
+    /**
+     * Конвертация рублей в евро
+     * @param rubles сумма в копейках
+     * @param eurRate курс евро в единицах rateScale
+     * @return сумма в евроцентах
+     */
+    public long convertToEUR(long rubles, long eurRate) {
+        if (rubles < 0) {
+            throw new IllegalArgumentException("Сумма в рублях не может быть отрицательной");
+        }
+        if (eurRate <= 0) {
+            throw new IllegalArgumentException("Курс евро должен быть положительным");
+        }
+        return divide(Math.multiplyExact(rubles, rateUnit), eurRate);
+    }
+
+    /**
+     * Расчет потерь при двойной конвертации (RUB -> USD -> EUR -> RUB)
+     * @param initialRubles исходная сумма в копейках
+     * @param usdRate курс доллара в единицах rateScale
+     * @param eurRate курс евро в единицах rateScale
+     * @return потери в копейках
+     */
+    public long calculateConversionLoss(long initialRubles, long usdRate, long eurRate) {
+        if (initialRubles < 0 || usdRate <= 0 || eurRate <= 0) {
+            throw new IllegalArgumentException("Неверные параметры конвертации");
+        }
+
+        long usdAmount = divide(Math.multiplyExact(initialRubles, rateUnit), usdRate);
+        long eurAmount = divide(Math.multiplyExact(usdAmount, usdRate), eurRate);
+        long finalRubles = divide(Math.multiplyExact(eurAmount, eurRate), rateUnit);
+
+        return initialRubles - finalRubles;
+    }
+
+    /**
+     * Расчет потерь с учетом комиссии банка
+     * @param initialRubles исходная сумма в копейках
+     * @param usdRate курс доллара в единицах rateScale
+     * @param eurRate курс евро в единицах rateScale
+     * @param commission комиссия в сотых долях процента (1% = 100)
+     * @return общие потери в копейках
+     */
+    public long calculateConversionLossWithCommission(long initialRubles, long usdRate, long eurRate,
+                                                      long commission) {
+        if (commission < 0 || commission > COMMISSION_BASIS) {
+            throw new IllegalArgumentException("Комиссия должна быть от 0 до 100%");
+        }
+
+        long conversionLoss = calculateConversionLoss(initialRubles, usdRate, eurRate);
+        long commissionAmount = divide(Math.multiplyExact(initialRubles, commission), COMMISSION_BASIS);
+
+        return conversionLoss + commissionAmount;
+    }
+
+    /**
+     * Деление неотрицательного числителя на положительный знаменатель с округлением
+     */
+    long divide(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        switch (roundingMode) {
+            case DOWN:
+            case FLOOR:
+                return quotient;
+            case UP:
+            case CEILING:
+                return quotient + 1;
+            case HALF_UP:
+            case HALF_DOWN:
+            case HALF_EVEN: {
+                // Сравниваем остаток с половиной делителя без переполнения
+                long other = denominator - remainder;
+                if (remainder > other) {
+                    return quotient + 1;
+                }
+                if (remainder < other) {
+                    return quotient;
+                }
+                if (roundingMode == RoundingMode.HALF_UP) {
+                    return quotient + 1;
+                }
+                if (roundingMode == RoundingMode.HALF_DOWN) {
+                    return quotient;
+                }
+                return (quotient & 1) == 0 ? quotient : quotient + 1;
+            }
+            default:
+                throw new ArithmeticException("Требуется округление, но задан режим " + roundingMode);
+        }
+    }
+}
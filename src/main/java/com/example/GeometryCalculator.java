@@ -8,6 +8,22 @@ package com.example;
  */
 public class GeometryCalculator {
 
+    private final ValidationMode validationMode;
+
+    public GeometryCalculator() {
+        this(ValidationMode.EXCEPTION);
+    }
+
+    /**
+     * @param validationMode как сообщать о некорректных параметрах
+     */
+    public GeometryCalculator(ValidationMode validationMode) {
+        if (validationMode == null) {
+            throw new IllegalArgumentException("Режим валидации не задан");
+        }
+        this.validationMode = validationMode;
+    }
+
     /**
      * Вычисление объема усеченного конуса
      * Формула: V = (1/3) * π * h * (R² + R*r + r²)
@@ -19,9 +35,7 @@ public class GeometryCalculator {
 
     public double calculateTruncatedConeVolume(double R, double r, double h) {
         validateConeParameters(R, r, h);
-        return (1.0/3.0) * Math.PI * h * (R*R + R*r + r*r);
-        //Поля, вот это разкомментируй для 6 задания, а строчку  выше наоборот закоменти, ну либо 3.0 поменяй на 2.0.
-        //return (1.0/2.0) * Math.PI * h * (R*R + R*r + r*r); // ОШИБКА: 1/2 вместо 1/3
+        return frustumVolume(R, r, h);
     }
     /**
      * Вычисление площади боковой поверхности усеченного конуса
@@ -34,10 +48,49 @@ public class GeometryCalculator {
      */
     public double calculateTruncatedConeLateralSurfaceArea(double R, double r, double h) {
         validateConeParameters(R, r, h);
-        double l = calculateGeneratrix(R, r, h); // образующая
+        return frustumLateralArea(R, r, h);
+    }
+
+    /**
+     * Объем усеченного конуса без проверки параметров.
+     * Формула верна и для вырожденных случаев: цилиндра (R = r) и полного конуса (r = 0).
+     */
+    static double frustumVolume(double R, double r, double h) {
+        return (1.0/3.0) * Math.PI * h * (R*R + R*r + r*r);
+        //Поля, вот это разкомментируй для 6 задания, а строчку  выше наоборот закоменти, ну либо 3.0 поменяй на 2.0.
+        //return (1.0/2.0) * Math.PI * h * (R*R + R*r + r*r); // ОШИБКА: 1/2 вместо 1/3
+    }
+
+    /**
+     * Площадь боковой поверхности усеченного конуса без проверки параметров.
+     * При h = 0 дает площадь плоского кольца между радиусами R и r.
+     */
+    static double frustumLateralArea(double R, double r, double h) {
+        return lateralArea(R, r, frustumGeneratrix(R, r, h));
+    }
+
+    /**
+     * Образующая усеченного конуса без проверки параметров
+     */
+    static double frustumGeneratrix(double R, double r, double h) {
+        double diff = R - r;
+        return Math.sqrt(h*h + diff*diff);
+    }
+
+    /**
+     * Площадь боковой поверхности по уже найденной образующей l
+     */
+    static double lateralArea(double R, double r, double l) {
         return Math.PI * (R + r) * l;
     }
 
+    /**
+     * Полная площадь поверхности по уже найденной образующей l
+     */
+    static double totalArea(double R, double r, double l) {
+        return Math.PI * (R*R + r*r + (R + r) * l);
+    }
+
     /**
      * Вычисление полной площади поверхности усеченного конуса
      * Формула: S_полн = π * (R² + r² + (R + r) * l)
@@ -48,8 +101,7 @@ public class GeometryCalculator {
      */
     public double calculateTruncatedConeTotalSurfaceArea(double R, double r, double h) {
         validateConeParameters(R, r, h);
-        double l = calculateGeneratrix(R, r, h); // образующая
-        return Math.PI * (R*R + r*r + (R + r) * l);
+        return totalArea(R, r, frustumGeneratrix(R, r, h));
     }
 
     /**
@@ -58,8 +110,8 @@ public class GeometryCalculator {
      * @return площадь большего основания
      */
     public double calculateBaseArea(double R) {
-        if (R <= 0) {
-            throw new IllegalArgumentException("Радиус основания должен быть положительным");
+        if (!(R > 0)) {
+            throw failure(ValidationFailure.NON_POSITIVE_DIMENSION, "Радиус основания должен быть положительным");
         }
         return Math.PI * R * R;
     }
@@ -74,19 +126,78 @@ public class GeometryCalculator {
      */
     public double calculateGeneratrix(double R, double r, double h) {
         validateConeParameters(R, r, h);
-        return Math.sqrt(h*h + (R - r)*(R - r));
+        return frustumGeneratrix(R, r, h);
+    }
+
+    /**
+     * Проверка параметров конуса без выброса исключения
+     * @return true, если параметры задают корректный усеченный конус
+     */
+    static boolean isValidCone(double R, double r, double h) {
+        // Сравнения записаны так, чтобы NaN тоже считался некорректным значением
+        return R > 0 && r > 0 && h > 0 && R > r;
     }
 
     /**
-     * Проверка параметров конуса на валидность
+     * Проверка параметров конуса без исключения
+     * @return причина отказа или null, если параметры корректны
+     */
+    public ValidationFailure checkConeParameters(double R, double r, double h) {
+        return ValidationFailure.ofCone(R, r, h);
+    }
+
+    /**
+     * Пакетная проверка без исключений: бит i карты errorBitmap (слово i / 64, бит i % 64)
+     * выставляется для некорректной строки i и сбрасывается для корректной
+     * @param errorBitmap карта ошибок длиной не меньше (R.length + 63) / 64
+     * @return количество некорректных строк
+     */
+    public int validateConeParameters(double[] R, double[] r, double[] h, long[] errorBitmap) {
+        int n = R.length;
+        if (r.length != n || h.length != n) {
+            throw new IllegalArgumentException("Входные колонки R, r, h должны иметь одинаковую длину");
+        }
+        if (errorBitmap.length < (n + 63) / 64) {
+            throw new IllegalArgumentException("Карта ошибок короче входных данных");
+        }
+        int invalidCount = 0;
+        for (int word = 0, base = 0; base < n; word++, base += 64) {
+            int limit = Math.min(64, n - base);
+            long bits = 0;
+            for (int k = 0; k < limit; k++) {
+                int i = base + k;
+                if (!isValidCone(R[i], r[i], h[i])) {
+                    bits |= 1L << k;
+                }
+            }
+            errorBitmap[word] = bits;
+            invalidCount += Long.bitCount(bits);
+        }
+        return invalidCount;
+    }
+
+    /**
+     * Проверка параметров конуса на валидность.
+     * Условия записаны через отрицание, чтобы NaN тоже отклонялся.
      */
     private void validateConeParameters(double R, double r, double h) {
-        if (R <= 0 || r <= 0 || h <= 0) {
-            throw new IllegalArgumentException("Все параметры конуса должны быть положительными");
+        if (!(R > 0) || !(r > 0) || !(h > 0)) {
+            throw failure(ValidationFailure.NON_POSITIVE_DIMENSION, "Все параметры конуса должны быть положительными");
+        }
+        if (!(R > r)) {
+            throw failure(ValidationFailure.BASE_RADIUS_ORDER,
+                    "Радиус большего основания R должен быть больше радиуса меньшего основания r");
         }
-        if (R <= r) {
-            throw new IllegalArgumentException("Радиус большего основания R должен быть больше радиуса меньшего основания r");
+    }
+
+    /**
+     * Исключение для причины отказа в соответствии с режимом валидации
+     */
+    private IllegalArgumentException failure(ValidationFailure reason, String message) {
+        if (validationMode == ValidationMode.STACKLESS_EXCEPTION) {
+            return StacklessValidationException.of(reason);
         }
+        return new IllegalArgumentException(message);
     }
 
     /**
@@ -119,17 +230,153 @@ public class GeometryCalculator {
         }
     }
 
+    /**
+     * Изменяемый контейнер результатов для горячих циклов.
+     * Один экземпляр переиспользуется между вызовами, поэтому расчет не создает мусора.
+     */
+    public static class MutableConeResults {
+        private double volume;
+        private double lateralSurfaceArea;
+        private double totalSurfaceArea;
+        private double generatrix;
+
+        void set(double volume, double lateralSurfaceArea,
+                 double totalSurfaceArea, double generatrix) {
+            this.volume = volume;
+            this.lateralSurfaceArea = lateralSurfaceArea;
+            this.totalSurfaceArea = totalSurfaceArea;
+            this.generatrix = generatrix;
+        }
+
+        public double getVolume() { return volume; }
+        public double getLateralSurfaceArea() { return lateralSurfaceArea; }
+        public double getTotalSurfaceArea() { return totalSurfaceArea; }
+        public double getGeneratrix() { return generatrix; }
+
+        /**
+         * Снимок текущих значений в неизменяемый ConeResults
+         */
+        public ConeResults toConeResults() {
+            return new ConeResults(volume, lateralSurfaceArea, totalSurfaceArea, generatrix);
+        }
+
+        @Override
+        public String toString() {
+            return toConeResults().toString();
+        }
+    }
+
     /**
      * Полный расчет всех параметров конуса
      */
     public ConeResults calculateAllConeParameters(double R, double r, double h) {
         validateConeParameters(R, r, h);
+        MutableConeResults out = new MutableConeResults();
+        computeAll(R, r, h, out);
+        return out.toConeResults();
+    }
+
+    /**
+     * Полный расчет всех параметров конуса без создания объектов
+     * @param R радиус большего основания
+     * @param r радиус меньшего основания
+     * @param h высота конуса
+     * @param out переиспользуемый контейнер, в который записываются результаты
+     * @return тот же контейнер out
+     */
+    public MutableConeResults calculateAllConeParameters(double R, double r, double h,
+                                                         MutableConeResults out) {
+        validateConeParameters(R, r, h);
+        computeAll(R, r, h, out);
+        return out;
+    }
+
+    /**
+     * Однопроходный расчет всех параметров для уже проверенных измерений.
+     * Формулы те же, что у одиночных методов; образующая считается один раз и передается в формулы площадей.
+     */
+    static void computeAll(double R, double r, double h, MutableConeResults out) {
+        double l = frustumGeneratrix(R, r, h);
+        out.set(frustumVolume(R, r, h), lateralArea(R, r, l), totalArea(R, r, l), l);
+    }
+
+    /**
+     * Пакетный расчет всех параметров для массива конусов.
+     * Входные и выходные данные передаются колонками примитивных массивов одинаковой длины,
+     * поэтому на каждый конус не создается ни одного объекта.
+     * Некорректные строки не прерывают расчет: их индексы записываются в invalidIndices,
+     * а в выходные колонки для них пишется NaN.
+     * @param R радиусы большего основания
+     * @param r радиусы меньшего основания
+     * @param h высоты
+     * @param volume выходная колонка объемов
+     * @param lateralArea выходная колонка площадей боковой поверхности
+     * @param totalArea выходная колонка полных площадей
+     * @param generatrix выходная колонка образующих
+     * @param invalidIndices массив для индексов некорректных строк (может быть null)
+     * @return количество некорректных строк
+     */
+    public int calculateAllConeParameters(double[] R, double[] r, double[] h,
+                                          double[] volume, double[] lateralArea,
+                                          double[] totalArea, double[] generatrix,
+                                          int[] invalidIndices) {
+        int n = R.length;
+        if (r.length != n || h.length != n) {
+            throw new IllegalArgumentException("Входные колонки R, r, h должны иметь одинаковую длину");
+        }
+        if (volume.length < n || lateralArea.length < n || totalArea.length < n || generatrix.length < n) {
+            throw new IllegalArgumentException("Выходные колонки короче входных данных");
+        }
+        if (invalidIndices != null && invalidIndices.length < n) {
+            throw new IllegalArgumentException("Массив индексов ошибок короче входных данных");
+        }
 
-        double volume = calculateTruncatedConeVolume(R, r, h);
-        double lateralArea = calculateTruncatedConeLateralSurfaceArea(R, r, h);
-        double totalArea = calculateTruncatedConeTotalSurfaceArea(R, r, h);
-        double generatrix = calculateGeneratrix(R, r, h);
+        MutableConeResults row = new MutableConeResults();
+        int invalidCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (!isValidCone(R[i], r[i], h[i])) {
+                volume[i] = Double.NaN;
+                lateralArea[i] = Double.NaN;
+                totalArea[i] = Double.NaN;
+                generatrix[i] = Double.NaN;
+                if (invalidIndices != null) {
+                    invalidIndices[invalidCount] = i;
+                }
+                invalidCount++;
+                continue;
+            }
 
-        return new ConeResults(volume, lateralArea, totalArea, generatrix);
+            computeAll(R[i], r[i], h[i], row);
+            volume[i] = row.volume;
+            lateralArea[i] = row.lateralSurfaceArea;
+            totalArea[i] = row.totalSurfaceArea;
+            generatrix[i] = row.generatrix;
+        }
+        return invalidCount;
+    }
+
+    /**
+     * Пакетный расчет с записью результатов в хранилище вне кучи.
+     * Строки добавляются в конец хранилища в порядке входных данных, для некорректных пишется NaN.
+     * @return количество некорректных строк
+     */
+    public int calculateAllConeParameters(double[] R, double[] r, double[] h, OffHeapConeResultStore store) {
+        int n = R.length;
+        if (r.length != n || h.length != n) {
+            throw new IllegalArgumentException("Входные колонки R, r, h должны иметь одинаковую длину");
+        }
+
+        MutableConeResults row = new MutableConeResults();
+        int invalidCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (!isValidCone(R[i], r[i], h[i])) {
+                store.appendInvalid();
+                invalidCount++;
+                continue;
+            }
+            computeAll(R[i], r[i], h[i], row);
+            store.append(row.volume, row.lateralSurfaceArea, row.totalSurfaceArea, row.generatrix);
+        }
+        return invalidCount;
     }
-}
\ No newline at end of file
+}
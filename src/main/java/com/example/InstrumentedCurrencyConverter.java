@@ -0,0 +1,134 @@
+package com.example;
+
+/**
+ * Декоратор CurrencyConverter, записывающий вызовы, задержки и причины отказов в CalculatorMetrics.
+ * Таблица курсов берется у декорируемого конвертера, поэтому вызовы по текущему снимку
+ * тоже проходят через замеры.
+ */
+public class InstrumentedCurrencyConverter extends CurrencyConverter {
+
+    private final CurrencyConverter delegate;
+    private final CalculatorMetrics metrics;
+
+    private final CalculatorMetrics.MethodMetrics toUsd;
+    private final CalculatorMetrics.MethodMetrics toEur;
+    private final CalculatorMetrics.MethodMetrics loss;
+    private final CalculatorMetrics.MethodMetrics lossWithCommission;
+    private final CalculatorMetrics.MethodMetrics batch;
+    private final CalculatorMetrics.MethodMetrics check;
+    private final CalculatorMetrics.MethodMetrics validateBatch;
+
+    public InstrumentedCurrencyConverter(CurrencyConverter delegate, CalculatorMetrics metrics) {
+        super(delegate == null ? null : delegate.rateTable());
+        if (delegate == null || metrics == null) {
+            throw new IllegalArgumentException("Конвертер и метрики должны быть заданы");
+        }
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.toUsd = metrics.method("CurrencyConverter.convertToUSD");
+        this.toEur = metrics.method("CurrencyConverter.convertToEUR");
+        this.loss = metrics.method("CurrencyConverter.calculateConversionLoss");
+        this.lossWithCommission = metrics.method("CurrencyConverter.calculateConversionLossWithCommission");
+        this.batch = metrics.method("CurrencyConverter.calculateConversionLossWithCommission[batch]");
+        this.check = metrics.method("CurrencyConverter.checkConversionParameters");
+        this.validateBatch = metrics.method("CurrencyConverter.validateConversionParameters[batch]");
+    }
+
+    @Override
+    public double convertToUSD(double rubles, double usdRate) {
+        long start = metrics.start();
+        try {
+            return delegate.convertToUSD(rubles, usdRate);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofConversion(rubles, usdRate));
+            throw e;
+        } finally {
+            metrics.record(toUsd, start);
+        }
+    }
+
+    @Override
+    public double convertToEUR(double rubles, double eurRate) {
+        long start = metrics.start();
+        try {
+            return delegate.convertToEUR(rubles, eurRate);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofConversion(rubles, eurRate));
+            throw e;
+        } finally {
+            metrics.record(toEur, start);
+        }
+    }
+
+    @Override
+    public double calculateConversionLoss(double initialRubles, double usdRate, double eurRate) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateConversionLoss(initialRubles, usdRate, eurRate);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofConversionLoss(initialRubles, usdRate, eurRate, 0));
+            throw e;
+        } finally {
+            metrics.record(loss, start);
+        }
+    }
+
+    @Override
+    public double calculateConversionLossWithCommission(double initialRubles,
+                                                        double usdRate, double eurRate,
+                                                        double commission) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateConversionLossWithCommission(initialRubles, usdRate, eurRate, commission);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofConversionLoss(initialRubles, usdRate, eurRate, commission));
+            throw e;
+        } finally {
+            metrics.record(lossWithCommission, start);
+        }
+    }
+
+    @Override
+    public int calculateConversionLossWithCommission(double[] rubles, double[] usdRates, double[] eurRates,
+                                                     double[] commissions, double[] losses, int count) {
+        long start = metrics.start();
+        try {
+            int invalid = delegate.calculateConversionLossWithCommission(rubles, usdRates, eurRates,
+                    commissions, losses, count);
+            if (invalid > 0 && metrics.isEnabled()) {
+                for (int i = 0; i < count; i++) {
+                    ValidationFailure reason = ValidationFailure.ofConversionLoss(rubles[i], usdRates[i],
+                            eurRates[i], commissions[i]);
+                    if (reason != null) {
+                        metrics.recordFailure(reason);
+                    }
+                }
+            }
+            return invalid;
+        } finally {
+            metrics.record(batch, start);
+        }
+    }
+
+    @Override
+    public ValidationFailure checkConversionParameters(double initialRubles, double usdRate, double eurRate,
+                                                       double commission) {
+        long start = metrics.start();
+        try {
+            return delegate.checkConversionParameters(initialRubles, usdRate, eurRate, commission);
+        } finally {
+            metrics.record(check, start);
+        }
+    }
+
+    @Override
+    public int validateConversionParameters(double[] rubles, double[] usdRates, double[] eurRates,
+                                            double[] commissions, long[] errorBitmap) {
+        long start = metrics.start();
+        try {
+            return delegate.validateConversionParameters(rubles, usdRates, eurRates, commissions, errorBitmap);
+        } finally {
+            metrics.record(validateBatch, start);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example;
+
+/**
+ * Декоратор GeometryCalculator, записывающий вызовы, задержки и причины отказов в CalculatorMetrics
+ */
+public class InstrumentedGeometryCalculator extends GeometryCalculator {
+
+    private final GeometryCalculator delegate;
+    private final CalculatorMetrics metrics;
+
+    private final CalculatorMetrics.MethodMetrics volume;
+    private final CalculatorMetrics.MethodMetrics lateralArea;
+    private final CalculatorMetrics.MethodMetrics totalArea;
+    private final CalculatorMetrics.MethodMetrics baseArea;
+    private final CalculatorMetrics.MethodMetrics generatrix;
+    private final CalculatorMetrics.MethodMetrics allParameters;
+    private final CalculatorMetrics.MethodMetrics batch;
+    private final CalculatorMetrics.MethodMetrics offHeapBatch;
+    private final CalculatorMetrics.MethodMetrics check;
+    private final CalculatorMetrics.MethodMetrics validateBatch;
+
+    public InstrumentedGeometryCalculator(GeometryCalculator delegate, CalculatorMetrics metrics) {
+        if (delegate == null || metrics == null) {
+            throw new IllegalArgumentException("Калькулятор и метрики должны быть заданы");
+        }
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.volume = metrics.method("GeometryCalculator.calculateTruncatedConeVolume");
+        this.lateralArea = metrics.method("GeometryCalculator.calculateTruncatedConeLateralSurfaceArea");
+        this.totalArea = metrics.method("GeometryCalculator.calculateTruncatedConeTotalSurfaceArea");
+        this.baseArea = metrics.method("GeometryCalculator.calculateBaseArea");
+        this.generatrix = metrics.method("GeometryCalculator.calculateGeneratrix");
+        this.allParameters = metrics.method("GeometryCalculator.calculateAllConeParameters");
+        this.batch = metrics.method("GeometryCalculator.calculateAllConeParameters[batch]");
+        this.offHeapBatch = metrics.method("GeometryCalculator.calculateAllConeParameters[offheap]");
+        this.check = metrics.method("GeometryCalculator.checkConeParameters");
+        this.validateBatch = metrics.method("GeometryCalculator.validateConeParameters[batch]");
+    }
+
+    @Override
+    public double calculateTruncatedConeVolume(double R, double r, double h) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateTruncatedConeVolume(R, r, h);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofCone(R, r, h));
+            throw e;
+        } finally {
+            metrics.record(volume, start);
+        }
+    }
+
+    @Override
+    public double calculateTruncatedConeLateralSurfaceArea(double R, double r, double h) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateTruncatedConeLateralSurfaceArea(R, r, h);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofCone(R, r, h));
+            throw e;
+        } finally {
+            metrics.record(lateralArea, start);
+        }
+    }
+
+    @Override
+    public double calculateTruncatedConeTotalSurfaceArea(double R, double r, double h) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateTruncatedConeTotalSurfaceArea(R, r, h);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofCone(R, r, h));
+            throw e;
+        } finally {
+            metrics.record(totalArea, start);
+        }
+    }
+
+    @Override
+    public double calculateBaseArea(double R) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateBaseArea(R);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.NON_POSITIVE_DIMENSION);
+            throw e;
+        } finally {
+            metrics.record(baseArea, start);
+        }
+    }
+
+    @Override
+    public double calculateGeneratrix(double R, double r, double h) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateGeneratrix(R, r, h);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofCone(R, r, h));
+            throw e;
+        } finally {
+            metrics.record(generatrix, start);
+        }
+    }
+
+    @Override
+    public ConeResults calculateAllConeParameters(double R, double r, double h) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateAllConeParameters(R, r, h);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofCone(R, r, h));
+            throw e;
+        } finally {
+            metrics.record(allParameters, start);
+        }
+    }
+
+    @Override
+    public MutableConeResults calculateAllConeParameters(double R, double r, double h, MutableConeResults out) {
+        long start = metrics.start();
+        try {
+            return delegate.calculateAllConeParameters(R, r, h, out);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure(ValidationFailure.ofCone(R, r, h));
+            throw e;
+        } finally {
+            metrics.record(allParameters, start);
+        }
+    }
+
+    @Override
+    public int calculateAllConeParameters(double[] R, double[] r, double[] h,
+                                          double[] volume, double[] lateralArea,
+                                          double[] totalArea, double[] generatrix,
+                                          int[] invalidIndices) {
+        long start = metrics.start();
+        try {
+            int invalid = delegate.calculateAllConeParameters(R, r, h, volume, lateralArea,
+                    totalArea, generatrix, invalidIndices);
+            if (invalid > 0 && metrics.isEnabled()) {
+                if (invalidIndices != null) {
+                    for (int k = 0; k < invalid; k++) {
+                        int i = invalidIndices[k];
+                        metrics.recordFailure(ValidationFailure.ofCone(R[i], r[i], h[i]));
+                    }
+                } else {
+                    // Индексы не запрошены: некорректные строки находятся повторной проверкой входа
+                    recordFailures(R, r, h);
+                }
+            }
+            return invalid;
+        } finally {
+            metrics.record(batch, start);
+        }
+    }
+
+    @Override
+    public int calculateAllConeParameters(double[] R, double[] r, double[] h, OffHeapConeResultStore store) {
+        long start = metrics.start();
+        try {
+            int invalid = delegate.calculateAllConeParameters(R, r, h, store);
+            if (invalid > 0 && metrics.isEnabled()) {
+                recordFailures(R, r, h);
+            }
+            return invalid;
+        } finally {
+            metrics.record(offHeapBatch, start);
+        }
+    }
+
+    @Override
+    public ValidationFailure checkConeParameters(double R, double r, double h) {
+        long start = metrics.start();
+        try {
+            return delegate.checkConeParameters(R, r, h);
+        } finally {
+            metrics.record(check, start);
+        }
+    }
+
+    @Override
+    public int validateConeParameters(double[] R, double[] r, double[] h, long[] errorBitmap) {
+        long start = metrics.start();
+        try {
+            return delegate.validateConeParameters(R, r, h, errorBitmap);
+        } finally {
+            metrics.record(validateBatch, start);
+        }
+    }
+
+    private void recordFailures(double[] R, double[] r, double[] h) {
+        for (int i = 0; i < R.length; i++) {
+            ValidationFailure reason = ValidationFailure.ofCone(R[i], r[i], h[i]);
+            if (reason != null) {
+                metrics.recordFailure(reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Колоночное хранилище результатов расчета конусов вне кучи.
+ *
+ * Строки хранятся блоками по chunkRows строк; блок состоит из четырех колонок double
+ * (объем, площадь боковой поверхности, полная площадь, образующая). Пока суммарный размер блоков
+ * укладывается в бюджет памяти, блоки выделяются прямыми буферами. Следующие блоки отображаются
+ * в файл подкачки во временном каталоге, и их страницы вытесняет операционная система,
+ * а не сборщик мусора. Файл удаляется при закрытии хранилища.
+ *
+ * Java 11 не позволяет освободить прямой или отображенный буфер явно: close только отпускает ссылки
+ * на блоки, а сама память и отображения возвращаются системе, когда сборщик мусора соберет буферы.
+ *
+ * Для некорректных строк все колонки равны NaN. Хранилище не потокобезопасно: один писатель,
+ * чтение после записи.
+ */
+public class OffHeapConeResultStore implements Closeable {
+
+    /**
+     * Обработчик строк при последовательном просмотре
+     */
+    public interface RowVisitor {
+        void visit(long index, double volume, double lateralSurfaceArea, double totalSurfaceArea, double generatrix);
+    }
+
+    public static final int DEFAULT_CHUNK_ROWS = 1 << 16;
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+
+    private static final int COLUMNS = 4;
+    private static final int VOLUME = 0;
+    private static final int LATERAL = 1;
+    private static final int TOTAL = 2;
+    private static final int GENERATRIX = 3;
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private final int chunkBytes;
+    private final long memoryBudget;
+    private final Path spillDirectory;
+
+    private final List<DoubleBuffer[]> chunks = new ArrayList<>();
+    private long size;
+    private int inMemoryChunks;
+    private int spilledChunks;
+    private Path spillFile;
+    private FileChannel spillChannel;
+    private boolean closed;
+
+    public OffHeapConeResultStore() {
+        this(DEFAULT_CHUNK_ROWS, DEFAULT_MEMORY_BUDGET, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param chunkRows строк в блоке, степень двойки
+     * @param memoryBudget предел памяти под прямые буферы, байт
+     * @param spillDirectory каталог для файла подкачки
+     */
+    public OffHeapConeResultStore(int chunkRows, long memoryBudget, Path spillDirectory) {
+        if (chunkRows <= 0 || Integer.bitCount(chunkRows) != 1 || chunkRows > Integer.MAX_VALUE / (COLUMNS * Double.BYTES)) {
+            throw new IllegalArgumentException("Размер блока должен быть степенью двойки не больше "
+                    + Integer.highestOneBit(Integer.MAX_VALUE / (COLUMNS * Double.BYTES)) + " строк");
+        }
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("Бюджет памяти не может быть отрицательным");
+        }
+        if (spillDirectory == null) {
+            throw new IllegalArgumentException("Каталог файла подкачки не задан");
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkRows);
+        this.chunkMask = chunkRows - 1;
+        this.chunkBytes = chunkRows * COLUMNS * Double.BYTES;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Добавление строки результатов
+     * @return индекс строки
+     */
+    public long append(double volume, double lateralSurfaceArea, double totalSurfaceArea, double generatrix) {
+        DoubleBuffer[] chunk = chunkForAppend();
+        int offset = (int) (size & chunkMask);
+        chunk[VOLUME].put(offset, volume);
+        chunk[LATERAL].put(offset, lateralSurfaceArea);
+        chunk[TOTAL].put(offset, totalSurfaceArea);
+        chunk[GENERATRIX].put(offset, generatrix);
+        return size++;
+    }
+
+    /**
+     * Добавление строки для некорректного конуса (все колонки NaN)
+     * @return индекс строки
+     */
+    public long appendInvalid() {
+        return append(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public double getVolume(long index) {
+        return column(index, VOLUME).get((int) (index & chunkMask));
+    }
+
+    public double getLateralSurfaceArea(long index) {
+        return column(index, LATERAL).get((int) (index & chunkMask));
+    }
+
+    public double getTotalSurfaceArea(long index) {
+        return column(index, TOTAL).get((int) (index & chunkMask));
+    }
+
+    public double getGeneratrix(long index) {
+        return column(index, GENERATRIX).get((int) (index & chunkMask));
+    }
+
+    /**
+     * Строка считается корректной, если ее объем не NaN
+     */
+    public boolean isValid(long index) {
+        return !Double.isNaN(getVolume(index));
+    }
+
+    /**
+     * Чтение строки в переиспользуемый контейнер
+     * @return тот же контейнер out
+     */
+    public GeometryCalculator.MutableConeResults get(long index, GeometryCalculator.MutableConeResults out) {
+        DoubleBuffer[] chunk = chunk(index);
+        int offset = (int) (index & chunkMask);
+        out.set(chunk[VOLUME].get(offset), chunk[LATERAL].get(offset),
+                chunk[TOTAL].get(offset), chunk[GENERATRIX].get(offset));
+        return out;
+    }
+
+    /**
+     * Последовательный просмотр всех строк
+     */
+    public void forEach(RowVisitor visitor) {
+        scan(0, size, visitor);
+    }
+
+    /**
+     * Последовательный просмотр строк [from, to)
+     */
+    public void scan(long from, long to, RowVisitor visitor) {
+        checkRange(from, to);
+        long index = from;
+        while (index < to) {
+            DoubleBuffer[] chunk = chunks.get((int) (index >>> chunkShift));
+            int offset = (int) (index & chunkMask);
+            int limit = (int) Math.min(chunkMask + 1L, offset + (to - index));
+            for (int i = offset; i < limit; i++, index++) {
+                visitor.visit(index, chunk[VOLUME].get(i), chunk[LATERAL].get(i),
+                        chunk[TOTAL].get(i), chunk[GENERATRIX].get(i));
+            }
+        }
+    }
+
+    /**
+     * Агрегаты по всем строкам
+     */
+    public ConeAggregate aggregate() {
+        return aggregate(0, size);
+    }
+
+    /**
+     * Агрегаты по строкам [from, to); читаются только колонки объема и полной площади
+     */
+    public ConeAggregate aggregate(long from, long to) {
+        checkRange(from, to);
+        ConeAggregate aggregate = new ConeAggregate();
+        long index = from;
+        while (index < to) {
+            DoubleBuffer[] chunk = chunks.get((int) (index >>> chunkShift));
+            DoubleBuffer volumes = chunk[VOLUME];
+            DoubleBuffer areas = chunk[TOTAL];
+            int offset = (int) (index & chunkMask);
+            int limit = (int) Math.min(chunkMask + 1L, offset + (to - index));
+            for (int i = offset; i < limit; i++) {
+                double volume = volumes.get(i);
+                if (Double.isNaN(volume)) {
+                    aggregate.addInvalid();
+                } else {
+                    aggregate.add(volume, areas.get(i));
+                }
+            }
+            index += limit - offset;
+        }
+        return aggregate;
+    }
+
+    /**
+     * Объем прямых буферов, байт
+     */
+    public long getOffHeapBytes() {
+        return (long) inMemoryChunks * chunkBytes;
+    }
+
+    /**
+     * Объем данных в файле подкачки, байт
+     */
+    public long getSpilledBytes() {
+        return (long) spilledChunks * chunkBytes;
+    }
+
+    /**
+     * Закрытие хранилища: ссылки на блоки отпускаются, файл подкачки удаляется.
+     * Память блоков освобождается при сборке мусора. Если файл удалить сразу нельзя (на Windows
+     * отображенный файл занят, пока буферы не собраны), он удаляется при завершении JVM.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (DoubleBuffer[] chunk : chunks) {
+            Arrays.fill(chunk, null);
+        }
+        chunks.clear();
+        size = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } finally {
+                try {
+                    Files.deleteIfExists(spillFile);
+                } catch (IOException e) {
+                    spillFile.toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    private DoubleBuffer[] chunkForAppend() {
+        if (closed) {
+            throw new IllegalStateException("Хранилище закрыто");
+        }
+        int index = (int) (size >>> chunkShift);
+        if (index < chunks.size()) {
+            return chunks.get(index);
+        }
+        ByteBuffer block;
+        if ((long) (inMemoryChunks + 1) * chunkBytes <= memoryBudget) {
+            block = ByteBuffer.allocateDirect(chunkBytes);
+            inMemoryChunks++;
+        } else {
+            block = mapSpillChunk();
+            spilledChunks++;
+        }
+        DoubleBuffer[] chunk = new DoubleBuffer[COLUMNS];
+        int columnBytes = chunkBytes / COLUMNS;
+        for (int c = 0; c < COLUMNS; c++) {
+            block.limit((c + 1) * columnBytes).position(c * columnBytes);
+            chunk[c] = block.slice().order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    private ByteBuffer mapSpillChunk() {
+        try {
+            if (spillChannel == null) {
+                spillFile = Files.createTempFile(spillDirectory, "cone-results-", ".bin");
+                spillChannel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            return spillChannel.map(FileChannel.MapMode.READ_WRITE, (long) spilledChunks * chunkBytes, chunkBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось расширить файл подкачки", e);
+        }
+    }
+
+    private DoubleBuffer[] chunk(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс " + index + " вне диапазона [0, " + size + ")");
+        }
+        return chunks.get((int) (index >>> chunkShift));
+    }
+
+    private DoubleBuffer column(long index, int column) {
+        return chunk(index)[column];
+    }
+
+    private void checkRange(long from, long to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Диапазон [" + from + ", " + to + ") вне [0, " + size + ")");
+        }
+    }
+}
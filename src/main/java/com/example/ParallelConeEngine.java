@@ -0,0 +1,176 @@
+package com.example;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Параллельный расчет параметров конусов на ForkJoinPool.
+ * Входные колонки делятся на блоки, каждый блок считается формулами GeometryCalculator,
+ * а частичные агрегаты объединяются при возврате из подзадач.
+ * Порог деления зависит от размера входа и параллелизма пула, поэтому маленькие
+ * наборы считаются в вызывающем потоке без накладных расходов на задачи.
+ */
+public class ParallelConeEngine implements AutoCloseable {
+
+    /**
+     * Минимальный размер блока: меньшие блоки не окупают создание задачи
+     */
+    static final int MIN_CHUNK = 4096;
+
+    /**
+     * Сколько блоков в среднем приходится на один поток (для балансировки нагрузки)
+     */
+    static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    /**
+     * Движок с собственным пулом заданного параллелизма
+     * @param parallelism количество рабочих потоков
+     */
+    public ParallelConeEngine(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Параллелизм должен быть положительным");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+    }
+
+    /**
+     * Движок поверх внешнего пула (пул не закрывается в close)
+     */
+    public ParallelConeEngine(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Пул потоков не задан");
+        }
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Агрегаты по всем конусам без сохранения построчных результатов
+     */
+    public ConeAggregate aggregate(double[] R, double[] r, double[] h) {
+        return calculate(R, r, h, null, null, null, null);
+    }
+
+    /**
+     * Параллельный расчет с заполнением выходных колонок (любая колонка может быть null)
+     * и агрегатов. Для некорректных строк в колонки пишется NaN.
+     */
+    public ConeAggregate calculate(double[] R, double[] r, double[] h,
+                                   double[] volume, double[] lateralArea,
+                                   double[] totalArea, double[] generatrix) {
+        int n = R.length;
+        if (r.length != n || h.length != n) {
+            throw new IllegalArgumentException("Входные колонки R, r, h должны иметь одинаковую длину");
+        }
+        checkOutput(volume, n);
+        checkOutput(lateralArea, n);
+        checkOutput(totalArea, n);
+        checkOutput(generatrix, n);
+
+        int threshold = splitThreshold(n, pool.getParallelism());
+        ChunkTask task = new ChunkTask(R, r, h, volume, lateralArea, totalArea, generatrix,
+                0, n, threshold);
+        if (n <= threshold) {
+            return task.computeDirectly();
+        }
+        return pool.invoke(task);
+    }
+
+    /**
+     * Порог деления: около CHUNKS_PER_THREAD блоков на поток, но не меньше MIN_CHUNK
+     */
+    static int splitThreshold(int n, int parallelism) {
+        long perChunk = (long) n / ((long) parallelism * CHUNKS_PER_THREAD);
+        return (int) Math.max(MIN_CHUNK, perChunk);
+    }
+
+    private static void checkOutput(double[] column, int n) {
+        if (column != null && column.length < n) {
+            throw new IllegalArgumentException("Выходные колонки короче входных данных");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<ConeAggregate> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] R;
+        private final double[] r;
+        private final double[] h;
+        private final double[] volume;
+        private final double[] lateralArea;
+        private final double[] totalArea;
+        private final double[] generatrix;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ChunkTask(double[] R, double[] r, double[] h,
+                  double[] volume, double[] lateralArea, double[] totalArea, double[] generatrix,
+                  int from, int to, int threshold) {
+            this.R = R;
+            this.r = r;
+            this.h = h;
+            this.volume = volume;
+            this.lateralArea = lateralArea;
+            this.totalArea = totalArea;
+            this.generatrix = generatrix;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected ConeAggregate compute() {
+            if (to - from <= threshold) {
+                return computeDirectly();
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(R, r, h, volume, lateralArea, totalArea, generatrix,
+                    from, mid, threshold);
+            ChunkTask right = new ChunkTask(R, r, h, volume, lateralArea, totalArea, generatrix,
+                    mid, to, threshold);
+            left.fork();
+            ConeAggregate result = right.compute();
+            return result.merge(left.join());
+        }
+
+        ConeAggregate computeDirectly() {
+            ConeAggregate aggregate = new ConeAggregate();
+            GeometryCalculator.MutableConeResults row = new GeometryCalculator.MutableConeResults();
+            for (int i = from; i < to; i++) {
+                if (!GeometryCalculator.isValidCone(R[i], r[i], h[i])) {
+                    aggregate.addInvalid();
+                    store(i, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+                    continue;
+                }
+                GeometryCalculator.computeAll(R[i], r[i], h[i], row);
+                aggregate.add(row.getVolume(), row.getTotalSurfaceArea());
+                store(i, row.getVolume(), row.getLateralSurfaceArea(),
+                        row.getTotalSurfaceArea(), row.getGeneratrix());
+            }
+            return aggregate;
+        }
+
+        private void store(int i, double v, double lateral, double total, double l) {
+            if (volume != null) volume[i] = v;
+            if (lateralArea != null) lateralArea[i] = lateral;
+            if (totalArea != null) totalArea[i] = total;
+            if (generatrix != null) generatrix[i] = l;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок курсов валют (рублей за единицу валюты).
+ * Все курсы внутри снимка согласованы между собой: читатель, получивший снимок,
+ * видит курсы одной публикации, даже если писатель уже опубликовал следующую.
+ */
+public final class RateSnapshot {
+    private final long version;
+    private final double usdRate;
+    private final double eurRate;
+    private final Map<String, Double> otherRates;
+
+    /**
+     * @param version номер публикации (для воспроизведения расчетов)
+     * @param usdRate курс доллара
+     * @param eurRate курс евро
+     * @param otherRates курсы прочих валют по коду ISO 4217 (может быть null)
+     */
+    public RateSnapshot(long version, double usdRate, double eurRate, Map<String, Double> otherRates) {
+        if (!(usdRate > 0)) {
+            throw new IllegalArgumentException("Курс доллара должен быть положительным");
+        }
+        if (!(eurRate > 0)) {
+            throw new IllegalArgumentException("Курс евро должен быть положительным");
+        }
+        Map<String, Double> copy = new HashMap<>();
+        if (otherRates != null) {
+            for (Map.Entry<String, Double> entry : otherRates.entrySet()) {
+                Double rate = entry.getValue();
+                if (rate == null || !(rate > 0)) {
+                    throw new IllegalArgumentException("Курс " + entry.getKey() + " должен быть положительным");
+                }
+                copy.put(entry.getKey(), rate);
+            }
+        }
+        this.version = version;
+        this.usdRate = usdRate;
+        this.eurRate = eurRate;
+        this.otherRates = Collections.unmodifiableMap(copy);
+    }
+
+    public RateSnapshot(long version, double usdRate, double eurRate) {
+        this(version, usdRate, eurRate, null);
+    }
+
+    public long getVersion() { return version; }
+    public double getUsdRate() { return usdRate; }
+    public double getEurRate() { return eurRate; }
+    public Map<String, Double> getOtherRates() { return otherRates; }
+
+    /**
+     * Курс по коду валюты
+     * @throws IllegalArgumentException если валюты нет в снимке
+     */
+    public double getRate(String currency) {
+        if ("USD".equals(currency)) {
+            return usdRate;
+        }
+        if ("EUR".equals(currency)) {
+            return eurRate;
+        }
+        Double rate = otherRates.get(currency);
+        if (rate == null) {
+            throw new IllegalArgumentException("Нет курса для валюты " + currency);
+        }
+        return rate;
+    }
+
+    /**
+     * Новый снимок со следующим номером версии и измененным курсом одной валюты
+     */
+    public RateSnapshot withRate(String currency, double rate) {
+        if ("USD".equals(currency)) {
+            return new RateSnapshot(version + 1, rate, eurRate, otherRates);
+        }
+        if ("EUR".equals(currency)) {
+            return new RateSnapshot(version + 1, usdRate, rate, otherRates);
+        }
+        Map<String, Double> rates = new HashMap<>(otherRates);
+        rates.put(currency, rate);
+        return new RateSnapshot(version + 1, usdRate, eurRate, rates);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Версия %d: USD %.4f, EUR %.4f, прочие %s", version, usdRate, eurRate, otherRates);
+    }
+}
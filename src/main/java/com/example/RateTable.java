@@ -0,0 +1,63 @@
+package com.example;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Таблица текущих курсов с атомарной публикацией без блокировок.
+ * Писатель подменяет снимок целиком, читатели берут ссылку на текущий снимок
+ * одним volatile-чтением и не конкурируют ни друг с другом, ни с писателем.
+ */
+public class RateTable {
+    private final AtomicReference<RateSnapshot> current;
+
+    public RateTable(RateSnapshot initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException("Начальный снимок курсов не задан");
+        }
+        this.current = new AtomicReference<>(initial);
+    }
+
+    /**
+     * Текущий снимок курсов
+     */
+    public RateSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Публикация нового снимка целиком
+     */
+    public void publish(RateSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Снимок курсов не задан");
+        }
+        current.set(snapshot);
+    }
+
+    /**
+     * Атомарное изменение на основе текущего снимка (повторяется при гонке писателей).
+     * Функция может вызываться несколько раз и не должна иметь побочных эффектов.
+     * @return опубликованный снимок
+     */
+    public RateSnapshot update(UnaryOperator<RateSnapshot> change) {
+        while (true) {
+            RateSnapshot previous = current.get();
+            RateSnapshot next = change.apply(previous);
+            if (next == null) {
+                throw new IllegalArgumentException("Снимок курсов не задан");
+            }
+            if (current.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Атомарная смена курса одной валюты с увеличением версии
+     * @return опубликованный снимок
+     */
+    public RateSnapshot updateRate(String currency, double rate) {
+        return update(snapshot -> snapshot.withRate(currency, rate));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Скользящее окно сумм потерь на кольцевом буфере корзин.
+ *
+ * Окно длиной windowMillis разбито на buckets корзин одинаковой ширины; корзина хранит количество
+ * транзакций и сумму потерь за свой интервал. Итоги окна поддерживаются нарастающим итогом:
+ * добавление и запрос стоят O(1) (при долгом простое — не больше buckets сбросов корзин),
+ * независимо от числа транзакций в окне. Чтобы вычитание не накапливало погрешность double,
+ * сумма пересчитывается по корзинам при каждом полном обороте кольца.
+ *
+ * Граница окна округляется до ширины корзины: в окно попадают корзины, интервал которых
+ * пересекается с (now - windowMillis, now].
+ */
+public class SlidingLossWindow {
+
+    /**
+     * Итоги окна на момент запроса
+     */
+    public static class Stats {
+        private final long count;
+        private final double totalLoss;
+
+        public Stats(long count, double totalLoss) {
+            this.count = count;
+            this.totalLoss = totalLoss;
+        }
+
+        public long getCount() { return count; }
+        public double getTotalLoss() { return totalLoss; }
+
+        /**
+         * Средние потери на транзакцию (0, если транзакций нет)
+         */
+        public double getAverageLoss() {
+            return count == 0 ? 0.0 : totalLoss / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Транзакций: %d, потери: %.2f, в среднем: %.2f", count, totalLoss, getAverageLoss());
+        }
+    }
+
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final int buckets;
+
+    private final long[] counts;
+    private final double[] sums;
+
+    // Номер самой новой корзины (время / ширина корзины)
+    private long head = Long.MIN_VALUE;
+    private long totalCount;
+    private double totalLoss;
+    private long dropped;
+
+    /**
+     * @param windowMillis длина окна, мс
+     * @param buckets количество корзин (длина окна должна делиться на него нацело)
+     */
+    public SlidingLossWindow(long windowMillis, int buckets) {
+        if (windowMillis <= 0 || buckets <= 0 || windowMillis % buckets != 0) {
+            throw new IllegalArgumentException("Длина окна должна быть положительной и делиться на число корзин");
+        }
+        this.windowMillis = windowMillis;
+        this.bucketMillis = windowMillis / buckets;
+        this.buckets = buckets;
+        this.counts = new long[buckets];
+        this.sums = new double[buckets];
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Учет транзакции. Транзакции старше окна относительно самой новой отбрасываются.
+     */
+    public synchronized void add(long timestampMillis, double loss) {
+        long bucket = Math.floorDiv(timestampMillis, bucketMillis);
+        advanceTo(bucket);
+        if (bucket <= head - buckets) {
+            dropped++;
+            return;
+        }
+        int slot = (int) Math.floorMod(bucket, (long) buckets);
+        counts[slot]++;
+        sums[slot] += loss;
+        totalCount++;
+        totalLoss += loss;
+    }
+
+    /**
+     * Итоги окна, заканчивающегося в nowMillis.
+     * Момент не может быть раньше корзины самой новой учтенной транзакции: корзины, выбывшие из окна,
+     * уже сброшены, поэтому окно в прошлом восстановить нельзя.
+     * @throws IllegalArgumentException если nowMillis раньше корзины самой новой транзакции или запроса
+     */
+    public synchronized Stats query(long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, bucketMillis);
+        if (head != Long.MIN_VALUE && bucket < head) {
+            throw new IllegalArgumentException("Запрос окна на момент " + nowMillis
+                    + " раньше последней учтенной корзины (" + head * bucketMillis + ")");
+        }
+        advanceTo(bucket);
+        return new Stats(totalCount, totalLoss);
+    }
+
+    /**
+     * Сколько транзакций отброшено как слишком старые
+     */
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Сдвиг головы окна до корзины target с вычитанием выбывших корзин
+     */
+    private void advanceTo(long target) {
+        if (target <= head) {
+            return;
+        }
+        if (head == Long.MIN_VALUE || target - head >= buckets) {
+            // Первое обращение или простой дольше окна: все корзины выбыли
+            Arrays.fill(counts, 0);
+            Arrays.fill(sums, 0.0);
+            totalCount = 0;
+            totalLoss = 0;
+            head = target;
+            return;
+        }
+        for (long bucket = head + 1; bucket <= target; bucket++) {
+            int slot = (int) Math.floorMod(bucket, (long) buckets);
+            totalCount -= counts[slot];
+            totalLoss -= sums[slot];
+            counts[slot] = 0;
+            sums[slot] = 0.0;
+            if (slot == 0) {
+                resyncTotal();
+            }
+        }
+        head = target;
+    }
+
+    private void resyncTotal() {
+        double sum = 0;
+        for (int i = 0; i < buckets; i++) {
+            sum += sums[i];
+        }
+        totalLoss = sum;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example;
+
+/**
+ * Расчет тел вращения, заданных профилем радиуса: цилиндров, конусов, шаровых сегментов,
+ * составных тел из усеченных конусов.
+ *
+ * Профиль передается колонками примитивных массивов: z[i] — координата сечения вдоль оси
+ * (неубывающая), radius[i] — радиус сечения (неотрицательный). Каждый участок между соседними
+ * сечениями считается усеченным конусом по формулам GeometryCalculator, поэтому объем и площадь
+ * получаются за один проход без создания объектов. Участок нулевой длины (уступ) дает плоское кольцо.
+ * Криволинейный профиль (например, шаровой сегмент) аппроксимируется ломаной с погрешностью O(1/n²).
+ */
+public class SolidOfRevolutionCalculator {
+
+    /**
+     * Результаты расчета тела вращения
+     */
+    public static class Results {
+        private final double volume;
+        private final double lateralSurfaceArea;
+        private final double totalSurfaceArea;
+
+        public Results(double volume, double lateralSurfaceArea, double totalSurfaceArea) {
+            this.volume = volume;
+            this.lateralSurfaceArea = lateralSurfaceArea;
+            this.totalSurfaceArea = totalSurfaceArea;
+        }
+
+        public double getVolume() { return volume; }
+        public double getLateralSurfaceArea() { return lateralSurfaceArea; }
+        public double getTotalSurfaceArea() { return totalSurfaceArea; }
+
+        @Override
+        public String toString() {
+            return String.format("Объем: %.2f, Площадь бок. поверхности: %.2f, Полная площадь: %.2f",
+                    volume, lateralSurfaceArea, totalSurfaceArea);
+        }
+    }
+
+    /**
+     * Потоковый расчет: сечения подаются по одному, профиль целиком в памяти не хранится
+     */
+    public static class Accumulator {
+        private double volume;
+        private double lateralArea;
+        private double firstRadius = Double.NaN;
+        private double lastZ;
+        private double lastRadius;
+        private long points;
+
+        /**
+         * Добавление очередного сечения профиля
+         * @param z координата сечения (не меньше предыдущей)
+         * @param radius радиус сечения
+         * @return this
+         */
+        public Accumulator add(double z, double radius) {
+            if (!(radius >= 0) || Double.isInfinite(radius) || Double.isNaN(z) || Double.isInfinite(z)) {
+                throw new IllegalArgumentException("Некорректное сечение профиля " + points
+                        + ": радиус должен быть неотрицательным, координаты конечными");
+            }
+            if (points == 0) {
+                firstRadius = radius;
+            } else {
+                double h = z - lastZ;
+                if (h < 0) {
+                    throw new IllegalArgumentException("Координаты профиля должны не убывать, сечение " + points);
+                }
+                volume += GeometryCalculator.frustumVolume(lastRadius, radius, h);
+                lateralArea += GeometryCalculator.frustumLateralArea(lastRadius, radius, h);
+            }
+            lastZ = z;
+            lastRadius = radius;
+            points++;
+            return this;
+        }
+
+        public long getPointCount() {
+            return points;
+        }
+
+        /**
+         * Результаты по добавленным сечениям. Торцы с ненулевым радиусом входят в полную площадь.
+         */
+        public Results toResults() {
+            if (points < 2) {
+                throw new IllegalArgumentException("Профиль должен содержать не меньше двух сечений");
+            }
+            double caps = Math.PI * (firstRadius * firstRadius + lastRadius * lastRadius);
+            return new Results(volume, lateralArea, lateralArea + caps);
+        }
+    }
+
+    /**
+     * Расчет по всему профилю
+     * @param z координаты сечений
+     * @param radius радиусы сечений
+     */
+    public Results calculate(double[] z, double[] radius) {
+        if (z.length != radius.length) {
+            throw new IllegalArgumentException("Колонки z и radius должны иметь одинаковую длину");
+        }
+        return calculate(z, radius, 0, z.length);
+    }
+
+    /**
+     * Расчет по части профиля [from, to)
+     */
+    public Results calculate(double[] z, double[] radius, int from, int to) {
+        if (from < 0 || to > z.length || to > radius.length || to - from < 2) {
+            throw new IllegalArgumentException("Профиль должен содержать не меньше двух сечений в пределах массивов");
+        }
+        Accumulator acc = new Accumulator();
+        for (int i = from; i < to; i++) {
+            acc.add(z[i], radius[i]);
+        }
+        return acc.toResults();
+    }
+
+    /**
+     * Расчет по профилю с равномерным шагом сечений
+     * @param radius радиусы сечений
+     * @param step расстояние между соседними сечениями
+     */
+    public Results calculateUniform(double[] radius, double step) {
+        if (!(step > 0) || Double.isInfinite(step)) {
+            throw new IllegalArgumentException("Шаг профиля должен быть положительным");
+        }
+        if (radius.length < 2) {
+            throw new IllegalArgumentException("Профиль должен содержать не меньше двух сечений");
+        }
+        Accumulator acc = new Accumulator();
+        for (int i = 0; i < radius.length; i++) {
+            acc.add(i * step, radius[i]);
+        }
+        return acc.toResults();
+    }
+
+    /**
+     * Профиль шарового сегмента высотой height шара радиуса sphereRadius
+     * (сегмент отсчитывается от полюса, z от 0 до height)
+     * @param points количество сечений, не меньше двух
+     * @param z выходная колонка координат длиной не меньше points
+     * @param radius выходная колонка радиусов длиной не меньше points
+     */
+    public static void sphericalSegmentProfile(double sphereRadius, double height, int points,
+                                               double[] z, double[] radius) {
+        if (!(sphereRadius > 0) || !(height > 0) || height > 2 * sphereRadius) {
+            throw new IllegalArgumentException("Высота сегмента должна быть в пределах (0, 2R]");
+        }
+        if (points < 2 || z.length < points || radius.length < points) {
+            throw new IllegalArgumentException("Профиль должен содержать не меньше двух сечений в пределах массивов");
+        }
+        for (int i = 0; i < points; i++) {
+            double zi = height * i / (points - 1);
+            z[i] = zi;
+            // r² = z (2R - z); max(0, ...) защищает от отрицательного нуля на полюсах
+            radius[i] = Math.sqrt(Math.max(0.0, zi * (2 * sphereRadius - zi)));
+        }
+    }
+}
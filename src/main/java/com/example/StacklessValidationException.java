@@ -0,0 +1,52 @@
+package com.example;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Исключение валидации без стека вызовов: fillInStackTrace не обходит стек, поэтому выброс
+ * стоит одной небольшой аллокации. Остается IllegalArgumentException, так что существующие
+ * обработчики продолжают работать.
+ *
+ * Экземпляры не разделяются: of создает новое исключение на каждый выброс, чтобы addSuppressed,
+ * initCause и setStackTrace у одного вызывающего не влияли на других (общий экземпляр накапливал бы
+ * подавленные исключения из несвязанных вызовов и потоков). Сообщения подготовлены заранее.
+ */
+public final class StacklessValidationException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<ValidationFailure, String> MESSAGES = new EnumMap<>(ValidationFailure.class);
+
+    static {
+        MESSAGES.put(ValidationFailure.NON_POSITIVE_DIMENSION, "Все параметры конуса должны быть положительными");
+        MESSAGES.put(ValidationFailure.BASE_RADIUS_ORDER,
+                "Радиус большего основания R должен быть больше радиуса меньшего основания r");
+        MESSAGES.put(ValidationFailure.NEGATIVE_AMOUNT, "Сумма в рублях не может быть отрицательной");
+        MESSAGES.put(ValidationFailure.BAD_RATE, "Курс валюты должен быть положительным");
+        MESSAGES.put(ValidationFailure.BAD_COMMISSION, "Комиссия должна быть от 0 до 100%");
+    }
+
+    private final ValidationFailure failure;
+
+    private StacklessValidationException(ValidationFailure failure) {
+        super(MESSAGES.get(failure));
+        this.failure = failure;
+    }
+
+    /**
+     * Новое исключение без стека для причины
+     */
+    public static StacklessValidationException of(ValidationFailure failure) {
+        return new StacklessValidationException(failure);
+    }
+
+    public ValidationFailure getFailure() {
+        return failure;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example;
+
+/**
+ * Причины отклонения входных данных калькуляторами
+ */
+public enum ValidationFailure {
+    /** Радиус или высота конуса не положительны (или NaN) */
+    NON_POSITIVE_DIMENSION,
+    /** Радиус большего основания не больше радиуса меньшего */
+    BASE_RADIUS_ORDER,
+    /** Отрицательная сумма в рублях */
+    NEGATIVE_AMOUNT,
+    /** Курс валюты не положителен */
+    BAD_RATE,
+    /** Комиссия вне диапазона 0..100% */
+    BAD_COMMISSION;
+
+    /**
+     * Причина, по которой GeometryCalculator отклонит параметры конуса
+     * @return причина или null, если параметры корректны
+     */
+    public static ValidationFailure ofCone(double R, double r, double h) {
+        if (!(R > 0) || !(r > 0) || !(h > 0)) {
+            return NON_POSITIVE_DIMENSION;
+        }
+        if (R <= r) {
+            return BASE_RADIUS_ORDER;
+        }
+        return null;
+    }
+
+    /**
+     * Причина, по которой CurrencyConverter отклонит одну конвертацию
+     * @return причина или null, если параметры корректны
+     */
+    public static ValidationFailure ofConversion(double rubles, double rate) {
+        if (!(rubles >= 0)) {
+            return NEGATIVE_AMOUNT;
+        }
+        if (!(rate > 0)) {
+            return BAD_RATE;
+        }
+        return null;
+    }
+
+    /**
+     * Причина, по которой CurrencyConverter отклонит расчет потерь с комиссией
+     * @return причина или null, если параметры корректны
+     */
+    public static ValidationFailure ofConversionLoss(double rubles, double usdRate, double eurRate,
+                                                     double commission) {
+        if (!(commission >= 0 && commission <= 100)) {
+            return BAD_COMMISSION;
+        }
+        if (!(rubles >= 0)) {
+            return NEGATIVE_AMOUNT;
+        }
+        if (!(usdRate > 0) || !(eurRate > 0)) {
+            return BAD_RATE;
+        }
+        return null;
+    }
+}
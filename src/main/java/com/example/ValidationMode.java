@@ -0,0 +1,12 @@
+package com.example;
+
+/**
+ * Как калькуляторы сообщают о некорректных входных данных в методах, выбрасывающих исключения.
+ * Режим без исключений — методы check* и пакетная проверка с битовой картой ошибок.
+ */
+public enum ValidationMode {
+    /** Новое IllegalArgumentException с подробным сообщением и стеком (по умолчанию) */
+    EXCEPTION,
+    /** StacklessValidationException без стека: заранее подготовленное сообщение, стек не заполняется */
+    STACKLESS_EXCEPTION
+}
@@ -0,0 +1,159 @@
+package com.example;
+
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class CachingGeometryCalculatorTest {
+
+    @Test(groups = {"geometry", "cache"})
+    public void testRepeatedConeIsServedFromCache() {
+        CachingGeometryCalculator cache = new CachingGeometryCalculator(1024);
+
+        GeometryCalculator.ConeResults first = cache.calculateAllConeParameters(5, 3, 4);
+        GeometryCalculator.ConeResults second = cache.calculateAllConeParameters(5, 3, 4);
+
+        assertSame(second, first, "Повторный запрос должен вернуть закэшированный результат");
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitRate(), 0.5, 0.0);
+        assertEquals(first.getVolume(), new GeometryCalculator().calculateTruncatedConeVolume(5, 3, 4), 0.001);
+    }
+
+    @Test(groups = {"geometry", "cache"})
+    public void testKeyUsesExactBitPatterns() {
+        CachingGeometryCalculator cache = new CachingGeometryCalculator(1024);
+
+        cache.calculateAllConeParameters(5, 3, 4);
+        cache.calculateAllConeParameters(5, 3, Math.nextUp(4.0));
+
+        assertEquals(cache.getHitCount(), 0, "Соседние значения double — разные ключи");
+        assertEquals(cache.size(), 2);
+    }
+
+    @Test(groups = {"geometry", "cache"})
+    public void testCacheIsBoundedAndEvicts() {
+        CachingGeometryCalculator cache = new CachingGeometryCalculator(64);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.calculateAllConeParameters(10 + i, 5, 4);
+        }
+
+        assertTrue(cache.size() <= cache.capacity(), "Размер кэша не должен превышать емкость");
+        assertTrue(cache.capacity() <= 64);
+        assertEquals(cache.getMissCount(), 1000);
+        assertEquals(cache.getEvictionCount(), 1000 - cache.size());
+    }
+
+    @Test(groups = {"geometry", "cache"})
+    public void testLargeCacheFillsToCapacity() {
+        // Все слоты сегмента должны быть достижимы, а не только первые 2^16
+        CachingGeometryCalculator cache = new CachingGeometryCalculator(1 << 20);
+        int capacity = cache.capacity();
+
+        // Ключей вдвое больше емкости: после вытеснений заняты все достижимые слоты
+        for (int i = 0; i < 2 * capacity; i++) {
+            cache.calculateAllConeParameters(10.0 + i * 1e-3, 1.0, 2.0);
+        }
+
+        assertTrue(cache.size() > capacity * 0.95,
+                "Кэш заполнен лишь на " + cache.size() + " из " + capacity + " записей");
+    }
+
+    @Test(groups = {"geometry", "cache"})
+    public void testOffHeapBatchGoesToDelegate() throws Exception {
+        CalculatorMetrics metrics = new CalculatorMetrics();
+        CachingGeometryCalculator cache = new CachingGeometryCalculator(
+                new InstrumentedGeometryCalculator(new GeometryCalculator(), metrics), 64);
+
+        try (OffHeapConeResultStore store = new OffHeapConeResultStore()) {
+            cache.calculateAllConeParameters(new double[] {5, 8}, new double[] {3, 4}, new double[] {4, 6}, store);
+
+            assertEquals(store.size(), 2);
+            assertEquals(metrics.getCallCounts().get("GeometryCalculator.calculateAllConeParameters[offheap]"),
+                    Long.valueOf(1));
+        }
+    }
+
+    @Test(groups = {"geometry", "cache"})
+    public void testEveryPublicMethodGoesToDelegate() {
+        assertEquals(inheritedMethods(GeometryCalculator.class, CachingGeometryCalculator.class),
+                Collections.emptyList());
+    }
+
+    @Test(groups = {"geometry", "cache"})
+    public void testHolderVariantUsesCache() {
+        CachingGeometryCalculator cache = new CachingGeometryCalculator(64);
+        GeometryCalculator.MutableConeResults holder = new GeometryCalculator.MutableConeResults();
+
+        cache.calculateAllConeParameters(8, 4, 6, holder);
+        cache.calculateAllConeParameters(8, 4, 6, holder);
+
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(holder.getGeneratrix(), Math.sqrt(36 + 16), 0.001);
+    }
+
+    @Test(groups = {"geometry", "cache", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidConeIsNotCached() {
+        new CachingGeometryCalculator(64).calculateAllConeParameters(3, 5, 4);
+    }
+
+    @Test(groups = {"geometry", "cache"})
+    public void testConcurrentAccessReturnsCorrectResults() throws Exception {
+        CachingGeometryCalculator cache = new CachingGeometryCalculator(256);
+        GeometryCalculator reference = new GeometryCalculator();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int t = 0; t < futures.length; t++) {
+                int seed = t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        // Каталог из 500 типоразмеров больше кэша — идут и попадания, и вытеснения
+                        double R = 10 + (i * 31 + seed) % 500;
+                        GeometryCalculator.ConeResults results = cache.calculateAllConeParameters(R, 5, 4);
+                        assertEquals(results.getVolume(), reference.calculateTruncatedConeVolume(R, 5, 4), 0.001);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(cache.getHitCount() + cache.getMissCount(), 80_000);
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    /**
+     * Публичные методы базового класса, которые декоратор не переопределил.
+     * Унаследованный метод работает с состоянием базового класса и обходит делегат.
+     */
+    private static List<String> inheritedMethods(Class<?> base, Class<?> decorator) {
+        List<String> missing = new ArrayList<>();
+        for (Method method : base.getDeclaredMethods()) {
+            int modifiers = method.getModifiers();
+            if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                continue;
+            }
+            try {
+                decorator.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                missing.add(method.toString());
+            }
+        }
+        return missing;
+    }
+}
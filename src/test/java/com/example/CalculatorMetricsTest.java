@@ -0,0 +1,203 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class CalculatorMetricsTest {
+
+    private CalculatorMetrics metrics;
+    private GeometryCalculator geometry;
+    private CurrencyConverter converter;
+
+    @BeforeMethod(groups = {"metrics"})
+    public void setUp() {
+        metrics = new CalculatorMetrics();
+        geometry = new InstrumentedGeometryCalculator(new GeometryCalculator(), metrics);
+        converter = new InstrumentedCurrencyConverter(new CurrencyConverter(), metrics);
+    }
+
+    @Test(groups = {"metrics"})
+    public void testCallsAreCountedPerMethod() {
+        geometry.calculateTruncatedConeVolume(5, 3, 4);
+        geometry.calculateTruncatedConeVolume(8, 4, 6);
+        geometry.calculateAllConeParameters(5, 3, 4);
+        converter.calculateConversionLossWithCommission(10000, 75.0, 85.0, 1.0);
+
+        assertEquals(metrics.getCallCounts().get("GeometryCalculator.calculateTruncatedConeVolume"), Long.valueOf(2));
+        assertEquals(metrics.getCallCounts().get("GeometryCalculator.calculateAllConeParameters"), Long.valueOf(1));
+        assertEquals(metrics.getCallCounts().get("CurrencyConverter.calculateConversionLossWithCommission"),
+                Long.valueOf(1));
+        assertEquals(metrics.getLatencies().get("GeometryCalculator.calculateTruncatedConeVolume").getCount(), 2);
+    }
+
+    @Test(groups = {"metrics"})
+    public void testValidationFailuresAreCountedByReason() {
+        expectFailure(() -> geometry.calculateTruncatedConeVolume(-5, 3, 4));
+        expectFailure(() -> geometry.calculateGeneratrix(3, 5, 4));
+        expectFailure(() -> converter.convertToUSD(1000, 0));
+        expectFailure(() -> converter.convertToEUR(-1, 85));
+        expectFailure(() -> converter.calculateConversionLossWithCommission(10000, 75.0, 85.0, 150.0));
+
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.NON_POSITIVE_DIMENSION), 1);
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.BASE_RADIUS_ORDER), 1);
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.BAD_RATE), 1);
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.NEGATIVE_AMOUNT), 1);
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.BAD_COMMISSION), 1);
+    }
+
+    @Test(groups = {"metrics"})
+    public void testBatchInvalidRowsAreClassified() {
+        double[] out = new double[3];
+        geometry.calculateAllConeParameters(new double[] {5, 3, -1}, new double[] {3, 5, 1}, new double[] {4, 4, 4},
+                out, out.clone(), out.clone(), out.clone(), new int[3]);
+
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.BASE_RADIUS_ORDER), 1);
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.NON_POSITIVE_DIMENSION), 1);
+
+        // Без массива индексов причины тоже учитываются
+        geometry.calculateAllConeParameters(new double[] {5, 3, -1}, new double[] {3, 5, 1}, new double[] {4, 4, 4},
+                out, out.clone(), out.clone(), out.clone(), null);
+
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.BASE_RADIUS_ORDER), 2);
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.NON_POSITIVE_DIMENSION), 2);
+    }
+
+    @Test(groups = {"metrics"})
+    public void testConversionBatchIsInstrumented() {
+        double[] losses = new double[3];
+        int invalid = converter.calculateConversionLossWithCommission(new double[] {10000, -1, 5000},
+                new double[] {75, 75, 0}, new double[] {85, 85, 80}, new double[] {1, 1, 1}, losses, 3);
+
+        assertEquals(invalid, 2);
+        assertEquals(losses[0], new CurrencyConverter().calculateConversionLossWithCommission(10000, 75, 85, 1), 0.0);
+        assertEquals(metrics.getCallCounts().get("CurrencyConverter.calculateConversionLossWithCommission[batch]"),
+                Long.valueOf(1));
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.NEGATIVE_AMOUNT), 1);
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.BAD_RATE), 1);
+    }
+
+    @Test(groups = {"metrics"})
+    public void testOffHeapBatchIsInstrumented() throws Exception {
+        try (OffHeapConeResultStore store = new OffHeapConeResultStore()) {
+            int invalid = geometry.calculateAllConeParameters(new double[] {5, 3, -1}, new double[] {3, 5, 1},
+                    new double[] {4, 4, 4}, store);
+
+            assertEquals(invalid, 2);
+            assertEquals(store.size(), 3);
+            assertEquals(metrics.getCallCounts().get("GeometryCalculator.calculateAllConeParameters[offheap]"),
+                    Long.valueOf(1));
+            assertEquals(metrics.getValidationFailureCount(ValidationFailure.BASE_RADIUS_ORDER), 1);
+            assertEquals(metrics.getValidationFailureCount(ValidationFailure.NON_POSITIVE_DIMENSION), 1);
+        }
+    }
+
+    @Test(groups = {"metrics"})
+    public void testDecoratorsOverrideEveryPublicMethod() {
+        assertEquals(inheritedMethods(GeometryCalculator.class, InstrumentedGeometryCalculator.class),
+                Collections.emptyList());
+        assertEquals(inheritedMethods(CurrencyConverter.class, InstrumentedCurrencyConverter.class),
+                Collections.emptyList());
+    }
+
+    @Test(groups = {"metrics"})
+    public void testValidationQueriesGoThroughInstrumentation() {
+        assertEquals(geometry.checkConeParameters(3, 5, 4), ValidationFailure.BASE_RADIUS_ORDER);
+        assertEquals(converter.checkConversionParameters(-1, 75, 85, 1), ValidationFailure.NEGATIVE_AMOUNT);
+        long[] bitmap = new long[1];
+        assertEquals(geometry.validateConeParameters(new double[] {5, 3}, new double[] {3, 5},
+                new double[] {4, 4}, bitmap), 1);
+        assertEquals(converter.validateConversionParameters(new double[] {100}, new double[] {0},
+                new double[] {85}, new double[] {1}, bitmap), 1);
+
+        assertEquals(metrics.getCallCounts().get("GeometryCalculator.checkConeParameters"), Long.valueOf(1));
+        assertEquals(metrics.getCallCounts().get("GeometryCalculator.validateConeParameters[batch]"), Long.valueOf(1));
+        assertEquals(metrics.getCallCounts().get("CurrencyConverter.checkConversionParameters"), Long.valueOf(1));
+        assertEquals(metrics.getCallCounts().get("CurrencyConverter.validateConversionParameters[batch]"),
+                Long.valueOf(1));
+    }
+
+    @Test(groups = {"metrics"})
+    public void testDisabledMetricsRecordNothing() {
+        metrics.setEnabled(false);
+        geometry.calculateTruncatedConeVolume(5, 3, 4);
+        expectFailure(() -> converter.convertToUSD(1000, 0));
+
+        assertEquals(metrics.getCallCounts().get("GeometryCalculator.calculateTruncatedConeVolume"), Long.valueOf(0));
+        assertEquals(metrics.getValidationFailureCount(ValidationFailure.BAD_RATE), 0);
+    }
+
+    @Test(groups = {"metrics"})
+    public void testRateTableCallsGoThroughInstrumentation() {
+        CurrencyConverter withRates = new InstrumentedCurrencyConverter(
+                new CurrencyConverter(new RateTable(new RateSnapshot(1, 75.0, 85.0))), metrics);
+
+        withRates.calculateConversionLoss(10000);
+
+        assertEquals(metrics.getCallCounts().get("CurrencyConverter.calculateConversionLoss"), Long.valueOf(1));
+    }
+
+    @Test(groups = {"metrics"})
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(snapshot.getCount(), 1000);
+        assertEquals(snapshot.getMax(), 1_000_000);
+        // Относительная погрешность ячейки не больше 1/8
+        assertEquals(snapshot.getPercentile(50), 500_000, 500_000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(snapshot.getPercentile(99), 990_000, 990_000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(snapshot.getMean(), 500_500, 0.001);
+    }
+
+    @Test(groups = {"metrics"})
+    public void testMBeanExposesCounters() throws Exception {
+        geometry.calculateBaseArea(5);
+        ObjectName name = metrics.registerMBean("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertTrue(server.isRegistered(name));
+            assertEquals(server.getAttribute(name, "Enabled"), Boolean.TRUE);
+            assertNotNull(server.getAttribute(name, "CallCounts"));
+        } finally {
+            CalculatorMetrics.unregisterMBean(name);
+        }
+    }
+
+    private static void expectFailure(Runnable call) {
+        assertThrows(IllegalArgumentException.class, call::run);
+    }
+
+    /**
+     * Публичные методы базового класса, которые декоратор не переопределил.
+     * Унаследованный метод работает с состоянием базового класса и обходит делегат.
+     */
+    private static List<String> inheritedMethods(Class<?> base, Class<?> decorator) {
+        List<String> missing = new ArrayList<>();
+        for (Method method : base.getDeclaredMethods()) {
+            int modifiers = method.getModifiers();
+            if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                continue;
+            }
+            try {
+                decorator.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                missing.add(method.toString());
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.testng.Assert.*;
+
+/**
+ * Случайные свойства обоих калькуляторов на большом числе сгенерированных входов.
+ * Количество входов задается -Dstress.iterations (по умолчанию немного, чтобы не тормозить
+ * обычный прогон; профиль parallel-tests запускает миллионы). Входы делятся на шарды,
+ * которые выполняются параллельно через DataProvider(parallel = true).
+ */
+public class CalculatorStressTest {
+
+    private static final int SHARDS = 16;
+    private static final int BATCH = 1024;
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+
+    private final GeometryCalculator geometry = new GeometryCalculator();
+    private final CurrencyConverter converter = new CurrencyConverter();
+
+    @DataProvider(name = "shards", parallel = true)
+    public Object[][] shardsProvider() {
+        long iterations = Long.getLong("stress.iterations", 20_000L);
+        long seed = Long.getLong("stress.seed", 20240601L);
+        Object[][] shards = new Object[SHARDS][];
+        for (int i = 0; i < SHARDS; i++) {
+            long count = iterations / SHARDS + (i < iterations % SHARDS ? 1 : 0);
+            shards[i] = new Object[]{seed + i, count};
+        }
+        return shards;
+    }
+
+    @Test(dataProvider = "shards", groups = {"stress", "geometry"})
+    public void testConeMatchesReferenceFormulas(long seed, long count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] R = new double[BATCH], r = new double[BATCH], h = new double[BATCH];
+        double[] volume = new double[BATCH], lateral = new double[BATCH], total = new double[BATCH], generatrix = new double[BATCH];
+
+        for (long done = 0; done < count; done += BATCH) {
+            int n = (int) Math.min(BATCH, count - done);
+            for (int i = 0; i < n; i++) {
+                R[i] = random.nextDouble(0.01, 1000);
+                r[i] = R[i] * random.nextDouble(0.05, 0.9);
+                h[i] = random.nextDouble(0.01, 1000);
+            }
+            for (int i = 0; i < n; i++) {
+                double bigR = R[i], smallR = r[i], height = h[i];
+
+                // Усеченный конус как разность полного конуса высотой H и отсеченной вершины
+                double apex = height * bigR / (bigR - smallR);
+                double top = apex - height;
+                double referenceVolume = Math.PI / 3 * (bigR * bigR * apex - smallR * smallR * top);
+                double referenceLateral = Math.PI * (bigR * Math.hypot(apex, bigR) - smallR * Math.hypot(top, smallR));
+                double referenceGeneratrix = Math.hypot(height, bigR - smallR);
+
+                GeometryCalculator.ConeResults results = geometry.calculateAllConeParameters(bigR, smallR, height);
+                assertClose(results.getVolume(), referenceVolume, "Объем", bigR, smallR, height);
+                assertClose(results.getLateralSurfaceArea(), referenceLateral, "Боковая площадь", bigR, smallR, height);
+                assertClose(results.getGeneratrix(), referenceGeneratrix, "Образующая", bigR, smallR, height);
+                assertClose(results.getTotalSurfaceArea(),
+                        referenceLateral + Math.PI * (bigR * bigR + smallR * smallR), "Полная площадь", bigR, smallR, height);
+            }
+
+            // Пакетный путь должен совпадать с одиночным до бита
+            assertEquals(geometry.calculateAllConeParameters(slice(R, n), slice(r, n), slice(h, n),
+                    volume, lateral, total, generatrix, null), 0);
+            for (int i = 0; i < n; i++) {
+                assertEquals(volume[i], geometry.calculateTruncatedConeVolume(R[i], r[i], h[i]), 0.0);
+                assertEquals(generatrix[i], geometry.calculateGeneratrix(R[i], r[i], h[i]), 0.0);
+            }
+        }
+    }
+
+    @Test(dataProvider = "shards", groups = {"stress", "currency"})
+    public void testConversionMatchesReferenceFormulas(long seed, long count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long i = 0; i < count; i++) {
+            double rubles = random.nextDouble(0, 1e9);
+            double usdRate = random.nextDouble(1e-3, 1e3);
+            double eurRate = random.nextDouble(1e-3, 1e3);
+            double commission = random.nextDouble(0, 100);
+
+            // RUB -> USD -> EUR -> RUB без спреда возвращает ту же сумму, поэтому потери равны комиссии
+            double loss = converter.calculateConversionLossWithCommission(rubles, usdRate, eurRate, commission);
+            double reference = rubles * commission / 100;
+            assertEquals(loss, reference, RELATIVE_TOLERANCE * Math.max(1.0, rubles),
+                    String.format("rubles=%s usd=%s eur=%s commission=%s", rubles, usdRate, eurRate, commission));
+            assertEquals(converter.convertToUSD(rubles, usdRate) * usdRate, rubles, RELATIVE_TOLERANCE * Math.max(1.0, rubles));
+
+            // Быстрая проверка, проверка с причиной и исключение должны соглашаться на случайных, в том числе некорректных, входах
+            double badRubles = random.nextDouble(-10, 10);
+            double badCommission = random.nextDouble(-10, 110);
+            boolean valid = CurrencyConverter.isValidConversion(badRubles, usdRate, eurRate, badCommission);
+            assertEquals(converter.checkConversionParameters(badRubles, usdRate, eurRate, badCommission) == null, valid);
+            boolean thrown = false;
+            try {
+                converter.calculateConversionLossWithCommission(badRubles, usdRate, eurRate, badCommission);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assertEquals(thrown, !valid);
+        }
+    }
+
+    private static void assertClose(double actual, double expected, String what, double R, double r, double h) {
+        if (Math.abs(actual - expected) > RELATIVE_TOLERANCE * Math.abs(expected)) {
+            fail(String.format("%s: %s вместо %s при R=%s, r=%s, h=%s", what, actual, expected, R, r, h));
+        }
+    }
+
+    private static double[] slice(double[] column, int n) {
+        return n == column.length ? column : Arrays.copyOf(column, n);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class ConeDimensionSolverTest {
+
+    private ConeDimensionSolver solver;
+    private GeometryCalculator calculator;
+
+    @BeforeMethod(groups = {"geometry", "inverse"})
+    public void setUp() {
+        solver = new ConeDimensionSolver();
+        calculator = new GeometryCalculator();
+    }
+
+    @Test(groups = {"geometry", "inverse"})
+    public void testHeightRoundTrip() {
+        double volume = calculator.calculateTruncatedConeVolume(5, 3, 4);
+        double area = calculator.calculateTruncatedConeTotalSurfaceArea(5, 3, 4);
+        assertEquals(solver.solveHeightForVolume(5, 3, volume), 4.0, 1e-12);
+        assertEquals(solver.solveHeightForTotalArea(5, 3, area), 4.0, 1e-12);
+    }
+
+    @Test(groups = {"geometry", "inverse"})
+    public void testSmallRadiusRoundTrip() {
+        double[] radii = {1e-6, 0.01, 1.0, 2.5, 4.99, 5 - 1e-7};
+        for (double r : radii) {
+            double volume = calculator.calculateTruncatedConeVolume(5, r, 7);
+            double area = calculator.calculateTruncatedConeTotalSurfaceArea(5, r, 7);
+            assertEquals(solver.solveSmallRadiusForVolume(5, 7, volume), r, 1e-9, "Объем, r = " + r);
+            assertEquals(solver.solveSmallRadiusForTotalArea(5, 7, area), r, 1e-9, "Площадь, r = " + r);
+        }
+    }
+
+    @Test(groups = {"geometry", "inverse"})
+    public void testBatchMatchesSingle() {
+        int n = 1000;
+        double[] volumes = new double[n];
+        double[] areas = new double[n];
+        for (int i = 0; i < n; i++) {
+            double r = 0.1 + 9.8 * i / n;
+            volumes[i] = calculator.calculateTruncatedConeVolume(10, r, 3);
+            areas[i] = calculator.calculateTruncatedConeTotalSurfaceArea(10, r, 3);
+        }
+        volumes[7] = -1;
+        areas[11] = 1e9;
+
+        double[] fromVolume = new double[n];
+        double[] fromArea = new double[n];
+        assertEquals(solver.solveSmallRadiusForVolume(10, 3, volumes, fromVolume), 1);
+        assertEquals(solver.solveSmallRadiusForTotalArea(10, 3, areas, fromArea), 1);
+        assertTrue(Double.isNaN(fromVolume[7]));
+        assertTrue(Double.isNaN(fromArea[11]));
+        for (int i = 0; i < n; i++) {
+            double r = 0.1 + 9.8 * i / n;
+            if (i != 7) assertEquals(fromVolume[i], r, 1e-9);
+            if (i != 11) assertEquals(fromArea[i], r, 1e-9);
+        }
+
+        double[] heights = new double[n];
+        assertEquals(solver.solveHeightForVolume(10, 2, volumes, heights), 1);
+        assertEquals(heights[0], solver.solveHeightForVolume(10, 2, volumes[0]), 0.0);
+        assertEquals(solver.solveHeightForTotalArea(10, 2, areas, heights), 0);
+    }
+
+    @Test(groups = {"geometry", "inverse"}, expectedExceptions = IllegalArgumentException.class)
+    public void testVolumeOutOfRangeForRadius() {
+        // Даже при r -> R объем не превышает πhR²
+        solver.solveSmallRadiusForVolume(5, 7, Math.PI * 7 * 25 + 1);
+    }
+
+    @Test(groups = {"geometry", "inverse"}, expectedExceptions = IllegalArgumentException.class)
+    public void testAreaBelowFlatCone() {
+        // При h -> 0 площадь стремится к π(R² + r² + (R + r)(R - r)) = 2πR²
+        solver.solveHeightForTotalArea(5, 3, 2 * Math.PI * 25 - 1);
+    }
+
+    @Test(groups = {"geometry", "inverse"}, expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidRadiiRejected() {
+        solver.solveHeightForVolume(3, 5, 100);
+    }
+}
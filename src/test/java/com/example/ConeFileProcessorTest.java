@@ -0,0 +1,71 @@
+package com.example;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+public class ConeFileProcessorTest {
+
+    private Path input;
+    private Path output;
+
+    @BeforeMethod(groups = {"geometry", "io"})
+    public void setUp() throws IOException {
+        input = Files.createTempFile("cones", ".in");
+        output = Files.createTempFile("cones", ".out");
+    }
+
+    @AfterMethod(groups = {"geometry", "io"}, alwaysRun = true)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Test(groups = {"geometry", "io"})
+    public void testProcessAcrossSeveralWindows() throws IOException {
+        double[] R = {5.0, 8.0, 3.0, 10.0, 7.5, 12.0, 6.0};
+        double[] r = {3.0, 4.0, 5.0, 6.0, 4.5, 8.0, 1.0};
+        double[] h = {4.0, 6.0, 4.0, 8.0, 5.0, 10.0, 2.0};
+        ConeFileProcessor.writeInput(input, R, r, h);
+
+        // Окно из трех записей: файл обрабатывается в три отображения, последнее неполное
+        ConeAggregate aggregate = new ConeFileProcessor(3).process(input, output);
+
+        assertEquals(aggregate.getCount(), 6);
+        assertEquals(aggregate.getInvalidCount(), 1);
+        assertEquals(Files.size(output), (long) R.length * ConeFileProcessor.OUTPUT_RECORD_SIZE);
+
+        ByteBuffer results = ByteBuffer.wrap(Files.readAllBytes(output)).order(ByteOrder.LITTLE_ENDIAN);
+        GeometryCalculator geometry = new GeometryCalculator();
+        for (int i = 0; i < R.length; i++) {
+            double volume = results.getDouble();
+            double lateral = results.getDouble();
+            double total = results.getDouble();
+            double generatrix = results.getDouble();
+            if (i == 2) {
+                assertTrue(Double.isNaN(volume), "Для некорректной записи ожидается NaN");
+                continue;
+            }
+            GeometryCalculator.ConeResults expected = geometry.calculateAllConeParameters(R[i], r[i], h[i]);
+            assertEquals(volume, expected.getVolume(), 0.001);
+            assertEquals(lateral, expected.getLateralSurfaceArea(), 0.001);
+            assertEquals(total, expected.getTotalSurfaceArea(), 0.001);
+            assertEquals(generatrix, expected.getGeneratrix(), 0.001);
+        }
+    }
+
+    @Test(groups = {"geometry", "io", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testTruncatedInputFile() throws IOException {
+        Files.write(input, new byte[ConeFileProcessor.INPUT_RECORD_SIZE + 1]);
+        new ConeFileProcessor().process(input, output);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example;
+
+import org.testng.annotations.Test;
+import org.testng.annotations.DataProvider;
+import static org.testng.Assert.*;
+
+public class ConeKernelsTest {
+
+    @DataProvider(name = "kernels")
+    public Object[][] kernelsProvider() {
+        return new Object[][] {
+                {ConeKernels.scalar()},
+                {ConeKernels.best()}
+        };
+    }
+
+    @Test(dataProvider = "kernels", groups = {"geometry", "batch"})
+    public void testKernelMatchesScalarMethods(ConeKernel kernel) {
+        // Длина не кратна ширине вектора, чтобы проверить и скалярный хвост
+        int n = 37;
+        double[] R = new double[n];
+        double[] r = new double[n];
+        double[] h = new double[n];
+        for (int i = 0; i < n; i++) {
+            R[i] = 5.0 + i * 0.75;
+            r[i] = 1.0 + i * 0.5;
+            h[i] = 2.0 + i * 0.25;
+        }
+        double[] volume = new double[n];
+        double[] lateral = new double[n];
+        double[] total = new double[n];
+        double[] generatrix = new double[n];
+
+        int invalid = kernel.calculate(R, r, h, volume, lateral, total, generatrix, null);
+        assertEquals(invalid, 0, "Ядро " + kernel.name() + " не должно находить ошибок");
+
+        GeometryCalculator geometry = new GeometryCalculator();
+        for (int i = 0; i < n; i++) {
+            assertEquals(volume[i], geometry.calculateTruncatedConeVolume(R[i], r[i], h[i]), 0.001);
+            assertEquals(lateral[i], geometry.calculateTruncatedConeLateralSurfaceArea(R[i], r[i], h[i]), 0.001);
+            assertEquals(total[i], geometry.calculateTruncatedConeTotalSurfaceArea(R[i], r[i], h[i]), 0.001);
+            assertEquals(generatrix[i], geometry.calculateGeneratrix(R[i], r[i], h[i]), 0.001);
+        }
+    }
+
+    @Test(dataProvider = "kernels", groups = {"geometry", "batch"})
+    public void testKernelMasksInvalidRows(ConeKernel kernel) {
+        int n = 19;
+        double[] R = new double[n];
+        double[] r = new double[n];
+        double[] h = new double[n];
+        for (int i = 0; i < n; i++) {
+            R[i] = 5.0;
+            r[i] = 3.0;
+            h[i] = 4.0;
+        }
+        R[2] = -5.0;          // отрицательный радиус
+        r[7] = 6.0;           // R <= r
+        h[11] = 0.0;          // нулевая высота
+        h[18] = Double.NaN;   // NaN в хвосте
+        double[] volume = new double[n];
+        double[] lateral = new double[n];
+        double[] total = new double[n];
+        double[] generatrix = new double[n];
+        int[] invalidIndices = new int[n];
+
+        int invalid = kernel.calculate(R, r, h, volume, lateral, total, generatrix, invalidIndices);
+
+        assertEquals(invalid, 4);
+        assertEquals(invalidIndices[0], 2);
+        assertEquals(invalidIndices[1], 7);
+        assertEquals(invalidIndices[2], 11);
+        assertEquals(invalidIndices[3], 18);
+        assertTrue(Double.isNaN(volume[7]), "Некорректная полоса должна содержать NaN");
+        assertTrue(volume[8] > 0, "Соседние корректные полосы должны рассчитываться");
+    }
+}
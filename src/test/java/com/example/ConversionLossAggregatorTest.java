@@ -0,0 +1,115 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public class ConversionLossAggregatorTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    private CurrencyConverter converter;
+    private ConversionLossAggregator aggregator;
+
+    @BeforeMethod(groups = {"currency", "window"})
+    public void setUp() {
+        converter = new CurrencyConverter();
+        aggregator = new ConversionLossAggregator(converter);
+    }
+
+    @Test(groups = {"currency", "window"})
+    public void testLossMatchesConverter() {
+        double loss = aggregator.addTransaction(T0, 10000, 75.0, 85.0, 1.0);
+        assertEquals(loss, converter.calculateConversionLossWithCommission(10000, 75.0, 85.0, 1.0), 1e-9);
+
+        SlidingLossWindow.Stats stats = aggregator.query(ConversionLossAggregator.Window.LAST_MINUTE, T0);
+        assertEquals(stats.getCount(), 1);
+        assertEquals(stats.getTotalLoss(), loss, 1e-9);
+        assertEquals(stats.getAverageLoss(), loss, 1e-9);
+    }
+
+    @Test(groups = {"currency", "window"})
+    public void testWindowsExpireIndependently() {
+        aggregator.addTransaction(T0, 10000, 75.0, 85.0, 1.0);
+        aggregator.addTransaction(T0 + 30_000, 20000, 75.0, 85.0, 1.0);
+
+        long later = T0 + 2 * ConversionLossAggregator.MINUTE;
+        assertEquals(aggregator.query(ConversionLossAggregator.Window.LAST_MINUTE, later).getCount(), 0);
+        assertEquals(aggregator.query(ConversionLossAggregator.Window.LAST_HOUR, later).getCount(), 2);
+        assertEquals(aggregator.query(ConversionLossAggregator.Window.LAST_DAY, later).getCount(), 2);
+
+        long nextDay = T0 + ConversionLossAggregator.DAY + ConversionLossAggregator.HOUR;
+        assertEquals(aggregator.query(ConversionLossAggregator.Window.LAST_HOUR, nextDay).getCount(), 0);
+        assertEquals(aggregator.query(ConversionLossAggregator.Window.LAST_DAY, nextDay).getCount(), 0);
+        assertEquals(aggregator.query(ConversionLossAggregator.Window.LAST_DAY, nextDay).getTotalLoss(), 0.0);
+    }
+
+    @Test(groups = {"currency", "window"})
+    public void testSlidingMatchesBruteForce() {
+        SlidingLossWindow window = new SlidingLossWindow(10_000, 10);
+        long[] times = new long[5000];
+        double[] losses = new double[times.length];
+        long t = T0;
+        Random random = new Random(42);
+        for (int i = 0; i < times.length; i++) {
+            t += random.nextInt(50);
+            times[i] = t;
+            losses[i] = random.nextDouble() * 100;
+            window.add(t, losses[i]);
+
+            if (i % 97 == 0) {
+                // Окно охватывает корзины, пересекающиеся с (now - 10 с, now]
+                long firstBucket = Math.floorDiv(t, 1000) - 9;
+                long count = 0;
+                double sum = 0;
+                for (int j = 0; j <= i; j++) {
+                    if (Math.floorDiv(times[j], 1000) >= firstBucket) {
+                        count++;
+                        sum += losses[j];
+                    }
+                }
+                SlidingLossWindow.Stats stats = window.query(t);
+                assertEquals(stats.getCount(), count, "Транзакция " + i);
+                assertEquals(stats.getTotalLoss(), sum, 1e-6, "Транзакция " + i);
+            }
+        }
+    }
+
+    @Test(groups = {"currency", "window"})
+    public void testLateTransactions() {
+        SlidingLossWindow window = new SlidingLossWindow(10_000, 10);
+        window.add(T0 + 20_000, 1.0);
+        window.add(T0 + 15_000, 2.0);
+        window.add(T0, 4.0);
+
+        SlidingLossWindow.Stats stats = window.query(T0 + 20_000);
+        assertEquals(stats.getCount(), 2);
+        assertEquals(stats.getTotalLoss(), 3.0, 1e-9);
+        assertEquals(window.getDroppedCount(), 1);
+    }
+
+    @Test(groups = {"currency", "window"})
+    public void testQueryInThePastRejected() {
+        SlidingLossWindow window = new SlidingLossWindow(10_000, 10);
+        window.add(T0 + 20_500, 1.0);
+
+        // Тот же интервал корзины допустим, более ранний — нет
+        assertEquals(window.query(T0 + 20_000).getCount(), 1);
+        expectThrows(IllegalArgumentException.class, () -> window.query(T0 + 19_999));
+        assertEquals(window.query(T0 + 25_000).getCount(), 1);
+        expectThrows(IllegalArgumentException.class, () -> window.query(T0 + 21_000));
+    }
+
+    @Test(groups = {"currency", "window"}, expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidTransactionRejected() {
+        aggregator.addTransaction(T0, -1, 75.0, 85.0, 1.0);
+    }
+
+    @Test(groups = {"currency", "window"}, expectedExceptions = IllegalArgumentException.class)
+    public void testWindowMustDivideIntoBuckets() {
+        new SlidingLossWindow(1000, 7);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+public class ConversionLossStreamProcessorTest {
+
+    private CurrencyConverter converter;
+
+    @BeforeMethod(groups = {"currency", "streaming"})
+    public void setUp() {
+        converter = new CurrencyConverter();
+    }
+
+    @Test(groups = {"currency", "streaming"})
+    public void testProcessWritesLossAndRunningTotal() throws IOException {
+        String csv = "rubles,usdRate,eurRate,commission\n"
+                + "10000,75,85,1\r\n"
+                + "5000,70.0,80.0,0.5\n"
+                + "\n"
+                + "-100,75,85,1\n"
+                + "1000,65,75,abc\n"
+                + "2.5e3,50,60,2";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ConversionLossStreamProcessor.Totals totals = new ConversionLossStreamProcessor(converter, true)
+                .process(new ByteArrayInputStream(csv.getBytes(StandardCharsets.US_ASCII)), out);
+
+        double loss1 = converter.calculateConversionLossWithCommission(10000, 75, 85, 1);
+        double loss2 = converter.calculateConversionLossWithCommission(5000, 70, 80, 0.5);
+        double loss3 = converter.calculateConversionLossWithCommission(2500, 50, 60, 2);
+
+        assertEquals(totals.getRows(), 5, "Пустая строка и заголовок не считаются строками данных");
+        assertEquals(totals.getInvalidRows(), 2);
+        assertEquals(totals.getTotalRubles(), 17500.0, 0.001);
+        assertEquals(totals.getTotalLoss(), loss1 + loss2 + loss3, 0.001);
+
+        String[] lines = out.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(lines.length, 5);
+        assertEquals(lines[0], "100.00,100.00");
+        assertEquals(lines[1], "25.00,125.00");
+        assertEquals(lines[2], "NaN,125.00");
+        assertEquals(lines[4], "50.00,175.00");
+    }
+
+    @Test(groups = {"currency", "streaming"})
+    public void testLinesSpanningBufferBoundaries() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        int rows = 5000;
+        for (int i = 0; i < rows; i++) {
+            csv.append(1000 + i).append(".25,75.5,85.25,1.5\n");
+        }
+
+        // Маленький буфер заставляет переносить незавершенные строки между чтениями
+        ConversionLossStreamProcessor.Totals totals = new ConversionLossStreamProcessor(converter, false, 64)
+                .process(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.US_ASCII)), null);
+
+        double expected = 0;
+        for (int i = 0; i < rows; i++) {
+            expected += converter.calculateConversionLossWithCommission(1000 + i + 0.25, 75.5, 85.25, 1.5);
+        }
+        assertEquals(totals.getRows(), rows);
+        assertEquals(totals.getInvalidRows(), 0);
+        assertEquals(totals.getTotalLoss(), expected, 0.001);
+    }
+
+    @DataProvider(name = "numbers")
+    public Object[][] numbersProvider() {
+        return new Object[][] {
+                {"0", 0.0},
+                {"75.5", 75.5},
+                {" -12.125 ", -12.125},
+                {"+3", 3.0},
+                {"1e3", 1000.0},
+                {"2.5E-2", 0.025},
+                {"0.000001", 0.000001},
+                {"12345678901234567890.5", 12345678901234567890.5},
+                {"1.", 1.0},
+                {".5", 0.5}
+        };
+    }
+
+    @Test(dataProvider = "numbers", groups = {"currency", "streaming", "data-provider"})
+    public void testParseDoubleFromBytes(String text, double expected) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(ConversionLossStreamProcessor.parseDouble(bytes, 0, bytes.length), expected, 0.0);
+    }
+
+    @Test(groups = {"currency", "streaming"})
+    public void testParseDoubleRejectsGarbage() {
+        for (String text : new String[] {"", "abc", "1.2.3", "1e", "-", "12x"}) {
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            assertTrue(Double.isNaN(ConversionLossStreamProcessor.parseDouble(bytes, 0, bytes.length)),
+                    "Строка '" + text + "' не должна разбираться как число");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public class ConversionPathSolverTest {
+
+    private CurrencyGraph graph;
+    private int rub;
+    private int usd;
+    private int eur;
+    private int cny;
+
+    @BeforeMethod(groups = {"currency", "graph"})
+    public void setUp() {
+        graph = new CurrencyGraph("RUB", 8);
+        rub = graph.indexOf("RUB");
+        usd = graph.addCurrency("USD", 74.0, 76.0);
+        eur = graph.addCurrency("EUR", 84.0, 86.0);
+        cny = graph.addCurrency("CNY", 10.4, 10.6);
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testDirectRouteIsCheapestWithCommission() {
+        ConversionPathSolver solver = new ConversionPathSolver(graph, 1.0);
+
+        ConversionPathSolver.Route route = solver.findBestRoute(usd, eur);
+
+        // Каждая промежуточная конвертация добавляет спред и комиссию, прямой путь выгоднее
+        assertEquals(route.getPath(), new int[] {usd, eur});
+        assertEquals(route.getFactor(), 74.0 / 86.0 * 0.99, 1e-12);
+        assertEquals(solver.findBestRoute(cny, cny).getPath(), new int[] {cny});
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testRouteThroughIntermediateWhenItIsCheaper() {
+        // Прямая котировка USD -> CNY хуже, чем путь через EUR
+        graph.setDirectRate(usd, cny, 6.0);
+        graph.setDirectRate(usd, eur, 0.88);
+        graph.setDirectRate(eur, cny, 8.2);
+        ConversionPathSolver solver = new ConversionPathSolver(graph, 0.0);
+
+        ConversionPathSolver.Route route = solver.findBestRoute(usd, cny);
+
+        assertEquals(route.getPath(), new int[] {usd, eur, cny});
+        assertEquals(route.convert(100), 100 * 0.88 * 8.2, 1e-9);
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testNoArbitrageWithoutDirectQuotes() {
+        // Через базовую валюту произведение bid/ask по любому циклу не больше 1
+        assertNull(new ConversionPathSolver(graph, 0.0).findArbitrageCycle());
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testArbitrageCycleIsFoundAfterQuoteChange() {
+        ConversionPathSolver solver = new ConversionPathSolver(graph, 0.5);
+        assertNull(solver.findArbitrageCycle());
+
+        // Завышенная прямая котировка USD -> EUR: RUB -> USD -> EUR -> RUB дает прибыль
+        graph.setDirectRate(usd, eur, 1.0);
+        solver.onDirectRateChanged(usd, eur);
+
+        int[] cycle = solver.findArbitrageCycle();
+        assertNotNull(cycle, "Арбитраж должен быть найден");
+        assertEquals(cycle[0], cycle[cycle.length - 1], "Цикл должен быть замкнут");
+        assertTrue(solver.cycleFactor(cycle) > 1.0, "Цикл арбитража должен увеличивать сумму");
+        assertEquals(graph.pathFactor(rub, usd, eur, rub), 1.0 / 76.0 * 1.0 * 84.0, 1e-12);
+
+        // Выгодного маршрута при арбитраже не существует
+        assertThrows(IllegalStateException.class, () -> solver.findBestRoute(rub, cny));
+
+        // Комиссия съедает прибыль после возврата котировки к рынку
+        graph.clearDirectRate(usd, eur);
+        solver.onDirectRateChanged(usd, eur);
+        assertNull(solver.findArbitrageCycle());
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testIncrementalUpdatesMatchFreshSolver() {
+        Random random = new Random(11);
+        CurrencyGraph big = new CurrencyGraph("RUB", 64);
+        for (int i = 1; i < 64; i++) {
+            double mid = 1 + random.nextDouble() * 100;
+            big.addCurrency("C" + i, mid * 0.99, mid * 1.01);
+        }
+        for (int k = 0; k < 100; k++) {
+            int from = 1 + random.nextInt(63);
+            int to = 1 + random.nextInt(63);
+            if (from != to) {
+                big.setDirectRate(from, to, big.crossRate(from, to) * 1.015);
+            }
+        }
+        ConversionPathSolver incremental = new ConversionPathSolver(big, 0.1);
+        incremental.findBestRoute(0, 63);
+
+        for (int tick = 0; tick < 200; tick++) {
+            int currency = 1 + random.nextInt(63);
+            double mid = 1 + random.nextDouble() * 100;
+            big.updateRates(currency, mid * 0.99, mid * 1.01);
+            incremental.onRatesChanged(currency);
+
+            int target = 1 + random.nextInt(63);
+            ConversionPathSolver fresh = new ConversionPathSolver(big, 0.1);
+            if (fresh.findArbitrageCycle() != null) {
+                continue;
+            }
+            ConversionPathSolver.Route expected = fresh.findBestRoute(0, target);
+            ConversionPathSolver.Route actual = incremental.findBestRoute(0, target);
+            assertEquals(actual.getFactor(), expected.getFactor(), 1e-9,
+                    "Инкрементальный результат расходится на тике " + tick);
+        }
+    }
+
+    @Test(groups = {"currency", "graph", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCommission() {
+        new ConversionPathSolver(graph, 101.0);
+    }
+}
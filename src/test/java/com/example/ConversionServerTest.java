@@ -0,0 +1,170 @@
+package com.example;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class ConversionServerTest {
+
+    private CurrencyConverter converter;
+    private ConversionServer server;
+
+    @BeforeMethod(groups = {"currency", "server"})
+    public void setUp() throws Exception {
+        converter = new CurrencyConverter();
+        server = new ConversionServer(converter, 0, 64, 200);
+    }
+
+    @AfterMethod(groups = {"currency", "server"}, alwaysRun = true)
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test(groups = {"currency", "server"})
+    public void testPipelinedRequestsGetMatchingResponses() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            writeRequest(out, 7, 10000, 75.0, 85.0, 1.0);
+            writeRequest(out, 8, 5000, 70.0, 80.0, 150.0);
+            writeRequest(out, 9, -1, 75.0, 85.0, 1.0);
+            out.flush();
+
+            assertEquals(in.readLong(), 7);
+            assertEquals(in.readInt(), ConversionServer.STATUS_OK);
+            assertEquals(in.readDouble(), converter.calculateConversionLossWithCommission(10000, 75.0, 85.0, 1.0), 0.001);
+
+            assertEquals(in.readLong(), 8);
+            assertEquals(in.readInt(), ValidationFailure.BAD_COMMISSION.ordinal() + 1);
+            assertTrue(Double.isNaN(in.readDouble()));
+
+            assertEquals(in.readLong(), 9);
+            assertEquals(in.readInt(), ValidationFailure.NEGATIVE_AMOUNT.ordinal() + 1);
+            in.readDouble();
+        }
+    }
+
+    @Test(groups = {"currency", "server"})
+    public void testLoadGeneratorEndToEnd() throws Exception {
+        ConversionLoadGenerator.Report report = new ConversionLoadGenerator(server.getPort(), 4, 5_000, 128).run();
+
+        assertEquals(report.getRequests(), 20_000);
+        assertEquals(report.getErrors(), 0, "Сгенерированные запросы корректны");
+        assertEquals(report.getLatency().getCount(), 20_000, "На каждый запрос должен прийти ответ");
+        assertTrue(report.getRequestsPerSecond() > 0);
+    }
+
+    @Test(groups = {"currency", "server"})
+    public void testClientThatDoesNotReadDoesNotStallOthers() throws Exception {
+        try (ConversionServer small = new ConversionServer(converter, 0, 64, 200, 256)) {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try (Socket greedy = new Socket(InetAddress.getLoopbackAddress(), small.getPort())) {
+                // Клиент отправляет запросы без остановки и не читает ответы
+                Future<Boolean> flooding = executor.submit(() -> {
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(greedy.getOutputStream()));
+                    try {
+                        for (long id = 0; id < 10_000_000; id++) {
+                            writeRequest(out, id, 10000, 75.0, 85.0, 1.0);
+                        }
+                        out.flush();
+                        return false;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                });
+                Thread.sleep(200);
+
+                try (Socket polite = new Socket(InetAddress.getLoopbackAddress(), small.getPort())) {
+                    polite.setSoTimeout(5000);
+                    DataOutputStream out = new DataOutputStream(polite.getOutputStream());
+                    DataInputStream in = new DataInputStream(polite.getInputStream());
+                    writeRequest(out, 42, 10000, 75.0, 85.0, 1.0);
+                    out.flush();
+
+                    assertEquals(in.readLong(), 42, "Ответ должен прийти, пока другой клиент не читает");
+                    assertEquals(in.readInt(), ConversionServer.STATUS_OK);
+                    in.readDouble();
+                }
+
+                assertTrue(flooding.get(30, TimeUnit.SECONDS), "Соединение, переполнившее очередь ответов, должно быть закрыто");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test(groups = {"currency", "server"})
+    public void testConverterErrorFailsOnlyItsBatch() throws Exception {
+        // Конвертер падает на пакете, в котором есть сумма 13
+        CurrencyConverter faulty = new CurrencyConverter() {
+            @Override
+            public int calculateConversionLossWithCommission(double[] rubles, double[] usdRates, double[] eurRates,
+                                                             double[] commissions, double[] losses, int count) {
+                for (int i = 0; i < count; i++) {
+                    if (rubles[i] == 13) {
+                        throw new IllegalStateException("Сбой конвертера");
+                    }
+                }
+                return super.calculateConversionLossWithCommission(rubles, usdRates, eurRates,
+                        commissions, losses, count);
+            }
+        };
+        try (ConversionServer failing = new ConversionServer(faulty, 0, 64, 200);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), failing.getPort())) {
+            socket.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            writeRequest(out, 1, 13, 75.0, 85.0, 1.0);
+            out.flush();
+            assertEquals(in.readLong(), 1);
+            assertEquals(in.readInt(), ConversionServer.STATUS_INTERNAL_ERROR);
+            assertTrue(Double.isNaN(in.readDouble()));
+
+            writeRequest(out, 2, 10000, 75.0, 85.0, 1.0);
+            out.flush();
+            assertEquals(in.readLong(), 2, "Поток сборки пакетов должен пережить сбой конвертера");
+            assertEquals(in.readInt(), ConversionServer.STATUS_OK);
+            in.readDouble();
+        }
+    }
+
+    @Test(groups = {"currency", "server"})
+    public void testBatchKernelMatchesScalarMethod() {
+        double[] rubles = {10000, 5000, -1};
+        double[] usd = {75, 70, 75};
+        double[] eur = {85, 80, 85};
+        double[] commission = {1, 0.5, 1};
+        double[] losses = new double[3];
+
+        int invalid = converter.calculateConversionLossWithCommission(rubles, usd, eur, commission, losses, 3);
+
+        assertEquals(invalid, 1);
+        assertEquals(losses[0], converter.calculateConversionLossWithCommission(10000, 75, 85, 1), 0.0);
+        assertEquals(losses[1], converter.calculateConversionLossWithCommission(5000, 70, 80, 0.5), 0.0);
+        assertTrue(Double.isNaN(losses[2]));
+    }
+
+    private static void writeRequest(DataOutputStream out, long id, double rubles, double usdRate,
+                                     double eurRate, double commission) throws Exception {
+        out.writeLong(id);
+        out.writeDouble(rubles);
+        out.writeDouble(usdRate);
+        out.writeDouble(eurRate);
+        out.writeDouble(commission);
+    }
+}
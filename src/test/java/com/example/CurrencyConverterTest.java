@@ -64,7 +64,7 @@ public class CurrencyConverterTest {
         assertEquals(loss, lossWithoutCommission + 100, 0.01, "Неверный расчет комиссии");
     }
 
-    @DataProvider(name = "currencyData")
+    @DataProvider(name = "currencyData", parallel = true)
     public Object[][] currencyDataProvider() {
         return new Object[][] {
                 // rubles, usdRate, eurRate, expectedUSD, expectedEUR
@@ -91,7 +91,7 @@ public class CurrencyConverterTest {
         assertEquals(eurAmount * eurRate, rubles, 0.01);
     }
 
-    @DataProvider(name = "lossData")
+    @DataProvider(name = "lossData", parallel = true)
     public Object[][] lossDataProvider() {
         return new Object[][] {
                 {10000.0, 75.0, 85.0},
@@ -158,4 +158,58 @@ public class CurrencyConverterTest {
         double loss = converter.calculateConversionLoss(0, 75.0, 85.0);
         assertEquals(loss, 0.0, 0.001);
     }
-}
\ No newline at end of file
+
+    @Test(groups = {"currency", "validation"})
+    public void testCheckConversionParametersReturnsStatus() {
+        assertNull(converter.checkConversionParameters(10000, 75.0, 85.0, 1.0));
+        assertEquals(converter.checkConversionParameters(-1, 75.0, 85.0, 1.0), ValidationFailure.NEGATIVE_AMOUNT);
+        assertEquals(converter.checkConversionParameters(10000, 0, 85.0, 1.0), ValidationFailure.BAD_RATE);
+        assertEquals(converter.checkConversionParameters(10000, 75.0, 85.0, 150.0), ValidationFailure.BAD_COMMISSION);
+    }
+
+    @Test(groups = {"currency", "validation"})
+    public void testValidateConversionParametersFillsErrorBitmap() {
+        double[] rubles = {10000, -1, 5000, 100};
+        double[] usd = {75, 75, 0, 50};
+        double[] eur = {85, 85, 80, 60};
+        double[] commission = {1, 1, 1, 101};
+        long[] bitmap = new long[1];
+
+        int invalid = converter.validateConversionParameters(rubles, usd, eur, commission, bitmap);
+
+        assertEquals(invalid, 3);
+        assertEquals(bitmap[0], 0b1110L);
+    }
+
+    @Test(groups = {"currency", "validation", "exceptions"})
+    public void testNaNRejectedByScalarAndFastCheck() {
+        double nan = Double.NaN;
+        double[][] rows = {
+                {nan, 75.0, 85.0, 1.0},
+                {10000, nan, 85.0, 1.0},
+                {10000, 75.0, nan, 1.0},
+                {10000, 75.0, 85.0, nan}
+        };
+        for (double[] row : rows) {
+            assertFalse(CurrencyConverter.isValidConversion(row[0], row[1], row[2], row[3]));
+            assertNotNull(converter.checkConversionParameters(row[0], row[1], row[2], row[3]));
+            expectThrows(IllegalArgumentException.class,
+                    () -> converter.calculateConversionLossWithCommission(row[0], row[1], row[2], row[3]));
+        }
+        expectThrows(IllegalArgumentException.class, () -> converter.convertToUSD(nan, 75.0));
+        expectThrows(IllegalArgumentException.class, () -> converter.convertToEUR(10000, nan));
+    }
+
+    @Test(groups = {"currency", "validation", "exceptions"})
+    public void testStacklessModeThrowsStacklessException() {
+        CurrencyConverter stackless = new CurrencyConverter(null, ValidationMode.STACKLESS_EXCEPTION);
+
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+                () -> stackless.calculateConversionLossWithCommission(10000, 75.0, 85.0, -1.0));
+
+        assertTrue(e instanceof StacklessValidationException);
+        assertEquals(((StacklessValidationException) e).getFailure(), ValidationFailure.BAD_COMMISSION);
+        assertNotSame(e, StacklessValidationException.of(ValidationFailure.BAD_COMMISSION));
+        assertEquals(e.getStackTrace().length, 0);
+    }
+}
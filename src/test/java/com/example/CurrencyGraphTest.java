@@ -0,0 +1,78 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class CurrencyGraphTest {
+
+    private CurrencyGraph graph;
+    private int rub;
+    private int usd;
+    private int eur;
+
+    @BeforeMethod(groups = {"currency", "graph"})
+    public void setUp() {
+        graph = new CurrencyGraph("RUB", 8);
+        rub = graph.indexOf("RUB");
+        usd = graph.addCurrency("USD", 75.0, 75.0);
+        eur = graph.addCurrency("EUR", 85.0, 85.0);
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testChainWithoutSpreadMatchesCurrencyConverter() {
+        double expected = new CurrencyConverter().calculateConversionLoss(10000, 75.0, 85.0);
+        assertEquals(graph.calculateConversionLoss(10000, rub, usd, eur, rub), expected, 0.001);
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testSpreadCausesLoss() {
+        graph.updateRates("USD", 74.0, 76.0);
+        graph.updateRates("EUR", 84.0, 86.0);
+
+        // 10000 / 76 * 74 / 86 * 84
+        double expected = 10000 - 10000 / 76.0 * 74.0 / 86.0 * 84.0;
+        assertEquals(graph.calculateConversionLoss(10000, rub, usd, eur, rub), expected, 1e-9);
+        assertTrue(graph.calculateConversionLoss(10000, rub, usd, rub) > 0, "Спред должен давать потери");
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testIncrementalUpdateMatchesFullRecompute() {
+        int cny = graph.addCurrency("CNY", 10.0, 10.5);
+        graph.updateRates(usd, 73.0, 77.0);
+
+        // Граф, построенный сразу с новыми курсами, должен совпадать с обновленным
+        CurrencyGraph fresh = new CurrencyGraph("RUB", 8);
+        fresh.addCurrency("USD", 73.0, 77.0);
+        fresh.addCurrency("EUR", 85.0, 85.0);
+        fresh.addCurrency("CNY", 10.0, 10.5);
+        for (int i = 0; i < graph.size(); i++) {
+            for (int j = 0; j < graph.size(); j++) {
+                assertEquals(graph.crossRate(i, j), fresh.crossRate(i, j), 0.0,
+                        "Кросс-курс " + graph.codeOf(i) + "->" + graph.codeOf(j) + " не совпадает");
+            }
+        }
+        assertEquals(graph.crossRate(cny, usd), 10.0 / 77.0, 1e-15);
+    }
+
+    @Test(groups = {"currency", "graph"})
+    public void testOpenPathIsValuedAtMidRate() {
+        // RUB -> USD без спреда: потерь нет
+        assertEquals(graph.calculateConversionLoss(7500, rub, usd), 0.0, 1e-9);
+        assertEquals(graph.pathFactor(rub), 1.0, 0.0);
+    }
+
+    @Test(groups = {"currency", "graph", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testBidAboveAskIsRejected() {
+        graph.updateRates(usd, 80.0, 75.0);
+    }
+
+    @Test(groups = {"currency", "graph", "exceptions"},
+            expectedExceptions = IllegalStateException.class)
+    public void testCapacityExceeded() {
+        CurrencyGraph small = new CurrencyGraph("RUB", 1);
+        small.addCurrency("USD", 75.0, 75.0);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public class FixedPointCurrencyConverterTest {
+
+    private FixedPointCurrencyConverter converter;
+
+    @BeforeMethod(groups = {"currency", "fixed-point"})
+    public void setUp() {
+        converter = new FixedPointCurrencyConverter();
+    }
+
+    @Test(groups = {"currency", "fixed-point"})
+    public void testConvertToUSDIsExact() {
+        // 7500.00 RUB по курсу 75.0000 = 100.00 USD без погрешности
+        long usd = converter.convertToUSD(converter.toMinorUnits(7500), converter.toRateUnits(75.0));
+        assertEquals(usd, 10_000L);
+
+        long eur = converter.convertToEUR(converter.toMinorUnits(4250), converter.toRateUnits(85.0));
+        assertEquals(eur, 5_000L);
+    }
+
+    @Test(groups = {"currency", "fixed-point"})
+    public void testConversionLossIsRoundingLoss() {
+        long rubles = converter.toMinorUnits(10000);
+        long usdRate = converter.toRateUnits(75.0);
+        long eurRate = converter.toRateUnits(85.0);
+
+        // 1000000 коп -> 13333 цента -> 11764 евроцента -> 999940 коп
+        assertEquals(converter.calculateConversionLoss(rubles, usdRate, eurRate), 60L);
+        // Комиссия 1% = 100 сотых процента = 10000 коп
+        assertEquals(converter.calculateConversionLossWithCommission(rubles, usdRate, eurRate, 100), 10_060L);
+    }
+
+    @Test(groups = {"currency", "fixed-point"})
+    public void testEqualRatesGiveNoLoss() {
+        // Сумма делится на курс без остатка, поэтому округлений в цепочке нет
+        long rate = converter.toRateUnits(75.0);
+        assertEquals(converter.calculateConversionLoss(converter.toMinorUnits(7500), rate, rate), 0L);
+    }
+
+    @DataProvider(name = "roundingModes")
+    public Object[][] roundingModesProvider() {
+        return new Object[][] {
+                {RoundingMode.HALF_EVEN},
+                {RoundingMode.HALF_UP},
+                {RoundingMode.HALF_DOWN},
+                {RoundingMode.UP},
+                {RoundingMode.DOWN},
+                {RoundingMode.CEILING},
+                {RoundingMode.FLOOR}
+        };
+    }
+
+    @Test(dataProvider = "roundingModes", groups = {"currency", "fixed-point", "data-provider"})
+    public void testMatchesBigDecimalReference(RoundingMode mode) {
+        FixedPointCurrencyConverter fixed = new FixedPointCurrencyConverter(2, 4, mode);
+        BigDecimalCurrencyConverter reference = new BigDecimalCurrencyConverter(2, 4, mode);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long rubles = random.nextInt(100_000_000);
+            long usdRate = 1 + random.nextInt(2_000_000);
+            long eurRate = 1 + random.nextInt(2_000_000);
+            long commission = random.nextInt((int) FixedPointCurrencyConverter.COMMISSION_BASIS + 1);
+
+            assertEquals(fixed.calculateConversionLossWithCommission(rubles, usdRate, eurRate, commission),
+                    reference.calculateConversionLossWithCommission(rubles, usdRate, eurRate, commission),
+                    "Расхождение с BigDecimal для " + rubles + ", " + usdRate + ", " + eurRate + ", " + commission);
+        }
+    }
+
+    @Test(groups = {"currency", "fixed-point", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeRubles() {
+        converter.convertToUSD(-100, converter.toRateUnits(75.0));
+    }
+
+    @Test(groups = {"currency", "fixed-point", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testTooHighCommission() {
+        converter.calculateConversionLossWithCommission(100, 750_000, 850_000,
+                FixedPointCurrencyConverter.COMMISSION_BASIS + 1);
+    }
+
+    @Test(groups = {"currency", "fixed-point", "exceptions"},
+            expectedExceptions = ArithmeticException.class)
+    public void testUnnecessaryRoundingIsRejected() {
+        new FixedPointCurrencyConverter(2, 4, RoundingMode.UNNECESSARY)
+                .convertToUSD(1_000_000, 750_000);
+    }
+}
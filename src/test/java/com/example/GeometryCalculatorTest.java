@@ -3,6 +3,9 @@ package com.example;
 import org.testng.annotations.Test;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.BeforeMethod;
+
+import java.util.Arrays;
+
 import static org.testng.Assert.*;
 
 public class GeometryCalculatorTest {
@@ -81,7 +84,7 @@ public class GeometryCalculatorTest {
                 "Полная площадь не совпадает");
     }
 
-    @DataProvider(name = "coneData")
+    @DataProvider(name = "coneData", parallel = true)
     public Object[][] coneDataProvider() {
         return new Object[][] {
                 // R, r, h
@@ -138,6 +141,24 @@ public class GeometryCalculatorTest {
         geometry.calculateTruncatedConeVolume(3, 5, 4); // R < r
     }
 
+    @Test(groups = {"geometry", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testNaNHeight() {
+        geometry.calculateTruncatedConeVolume(5, 3, Double.NaN);
+    }
+
+    @Test(groups = {"geometry", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testNaNRadius() {
+        geometry.calculateTruncatedConeTotalSurfaceArea(Double.NaN, 3, 4);
+    }
+
+    @Test(groups = {"geometry", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testBaseAreaWithNaNRadius() {
+        geometry.calculateBaseArea(Double.NaN);
+    }
+
     @Test(groups = {"geometry", "boundary"})
     public void testCalculateBaseArea() {
         double area = geometry.calculateBaseArea(5);
@@ -164,4 +185,162 @@ public class GeometryCalculatorTest {
         assertTrue(results.getTotalSurfaceArea() > 0,
                 "Площадь должна быть положительной даже для маленького конуса");
     }
-}
\ No newline at end of file
+
+    @Test(groups = {"geometry", "batch"})
+    public void testBatchCalculationMatchesScalar() {
+        double[] R = {5.0, 8.0, 10.0, 7.5, 12.0};
+        double[] r = {3.0, 4.0, 6.0, 4.5, 8.0};
+        double[] h = {4.0, 6.0, 8.0, 5.0, 10.0};
+        int n = R.length;
+        double[] volume = new double[n];
+        double[] lateral = new double[n];
+        double[] total = new double[n];
+        double[] generatrix = new double[n];
+
+        int invalid = geometry.calculateAllConeParameters(R, r, h, volume, lateral, total, generatrix, null);
+        assertEquals(invalid, 0, "Все строки должны быть корректными");
+
+        for (int i = 0; i < n; i++) {
+            GeometryCalculator.ConeResults expected = geometry.calculateAllConeParameters(R[i], r[i], h[i]);
+            assertEquals(volume[i], expected.getVolume(), 0.001, "Объем не совпадает в строке " + i);
+            assertEquals(lateral[i], expected.getLateralSurfaceArea(), 0.001,
+                    "Площадь боковой поверхности не совпадает в строке " + i);
+            assertEquals(total[i], expected.getTotalSurfaceArea(), 0.001,
+                    "Полная площадь не совпадает в строке " + i);
+            assertEquals(generatrix[i], expected.getGeneratrix(), 0.001,
+                    "Образующая не совпадает в строке " + i);
+        }
+    }
+
+    @Test(groups = {"geometry", "batch"})
+    public void testBatchReportsInvalidRowsByIndex() {
+        double[] R = {5.0, -5.0, 3.0, 8.0, 5.0};
+        double[] r = {3.0, 3.0, 5.0, 4.0, 3.0};
+        double[] h = {4.0, 4.0, 4.0, 6.0, 0.0};
+        int n = R.length;
+        double[] volume = new double[n];
+        double[] lateral = new double[n];
+        double[] total = new double[n];
+        double[] generatrix = new double[n];
+        int[] invalidIndices = new int[n];
+
+        int invalid = geometry.calculateAllConeParameters(R, r, h, volume, lateral, total, generatrix,
+                invalidIndices);
+
+        assertEquals(invalid, 3, "Должно быть три некорректные строки");
+        assertEquals(invalidIndices[0], 1);
+        assertEquals(invalidIndices[1], 2);
+        assertEquals(invalidIndices[2], 4);
+        assertTrue(Double.isNaN(volume[1]), "Для некорректной строки ожидается NaN");
+        assertTrue(volume[3] > 0, "Корректные строки после ошибки должны рассчитываться");
+    }
+
+    @Test(groups = {"geometry", "batch", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testBatchColumnLengthMismatch() {
+        double[] out = new double[2];
+        geometry.calculateAllConeParameters(new double[2], new double[1], new double[2],
+                out, out, out, out, null);
+    }
+
+    @Test(groups = {"geometry"})
+    public void testCalculateAllConeParametersIntoReusableHolder() {
+        GeometryCalculator.MutableConeResults holder = new GeometryCalculator.MutableConeResults();
+
+        GeometryCalculator.MutableConeResults returned = geometry.calculateAllConeParameters(5, 3, 4, holder);
+        assertSame(returned, holder, "Должен возвращаться переданный контейнер");
+        assertEquals(holder.getVolume(), geometry.calculateTruncatedConeVolume(5, 3, 4), 0.001);
+        assertEquals(holder.getGeneratrix(), geometry.calculateGeneratrix(5, 3, 4), 0.001);
+
+        // Повторный расчет перезаписывает значения в том же контейнере
+        geometry.calculateAllConeParameters(8, 4, 6, holder);
+        assertEquals(holder.getLateralSurfaceArea(),
+                geometry.calculateTruncatedConeLateralSurfaceArea(8, 4, 6), 0.001);
+        assertEquals(holder.getTotalSurfaceArea(),
+                geometry.calculateTruncatedConeTotalSurfaceArea(8, 4, 6), 0.001);
+    }
+
+    @Test(groups = {"geometry"})
+    public void testAllocatingAndHolderOverloadsAgree() {
+        GeometryCalculator.MutableConeResults holder = new GeometryCalculator.MutableConeResults();
+        GeometryCalculator.ConeResults results = geometry.calculateAllConeParameters(7.5, 4.5, 5);
+        geometry.calculateAllConeParameters(7.5, 4.5, 5, holder);
+
+        // Обе перегрузки считают по одной реализации формул, поэтому совпадают до бита
+        assertEquals(results.getVolume(), holder.getVolume(), 0.0);
+        assertEquals(results.getLateralSurfaceArea(), holder.getLateralSurfaceArea(), 0.0);
+        assertEquals(results.getTotalSurfaceArea(), holder.getTotalSurfaceArea(), 0.0);
+        assertEquals(results.getGeneratrix(), holder.getGeneratrix(), 0.0);
+
+        // И совпадают с одиночными методами: у каждой величины одна формула
+        assertEquals(results.getVolume(), geometry.calculateTruncatedConeVolume(7.5, 4.5, 5), 0.0);
+        assertEquals(results.getLateralSurfaceArea(), geometry.calculateTruncatedConeLateralSurfaceArea(7.5, 4.5, 5), 0.0);
+        assertEquals(results.getTotalSurfaceArea(), geometry.calculateTruncatedConeTotalSurfaceArea(7.5, 4.5, 5), 0.0);
+        assertEquals(results.getGeneratrix(), geometry.calculateGeneratrix(7.5, 4.5, 5), 0.0);
+    }
+
+    @Test(groups = {"geometry", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testReusableHolderRejectsInvalidCone() {
+        geometry.calculateAllConeParameters(3, 5, 4, new GeometryCalculator.MutableConeResults());
+    }
+
+    @Test(groups = {"geometry", "validation"})
+    public void testCheckConeParametersReturnsStatus() {
+        assertNull(geometry.checkConeParameters(5, 3, 4), "Корректный конус не должен иметь причины отказа");
+        assertEquals(geometry.checkConeParameters(-5, 3, 4), ValidationFailure.NON_POSITIVE_DIMENSION);
+        assertEquals(geometry.checkConeParameters(5, 3, 0), ValidationFailure.NON_POSITIVE_DIMENSION);
+        assertEquals(geometry.checkConeParameters(3, 5, 4), ValidationFailure.BASE_RADIUS_ORDER);
+    }
+
+    @Test(groups = {"geometry", "validation"})
+    public void testValidateConeParametersFillsErrorBitmap() {
+        int n = 130;
+        double[] R = new double[n];
+        double[] r = new double[n];
+        double[] h = new double[n];
+        Arrays.fill(R, 5.0);
+        Arrays.fill(r, 3.0);
+        Arrays.fill(h, 4.0);
+        r[1] = 6.0;
+        h[64] = -1.0;
+        R[129] = 0.0;
+        long[] bitmap = new long[3];
+        bitmap[0] = -1L; // старое содержимое должно перезаписываться
+
+        int invalid = geometry.validateConeParameters(R, r, h, bitmap);
+
+        assertEquals(invalid, 3);
+        assertEquals(bitmap[0], 1L << 1);
+        assertEquals(bitmap[1], 1L);
+        assertEquals(bitmap[2], 1L << 1);
+    }
+
+    @Test(groups = {"geometry", "validation", "exceptions"})
+    public void testStacklessModeThrowsStacklessException() {
+        GeometryCalculator stackless = new GeometryCalculator(ValidationMode.STACKLESS_EXCEPTION);
+
+        IllegalArgumentException first = expectThrows(IllegalArgumentException.class,
+                () -> stackless.calculateTruncatedConeVolume(3, 5, 4));
+        IllegalArgumentException second = expectThrows(IllegalArgumentException.class,
+                () -> stackless.calculateGeneratrix(3, 5, 4));
+
+        assertNotSame(second, first, "Экземпляры не должны разделяться между вызовами");
+        assertEquals(first.getStackTrace().length, 0, "Стек не должен заполняться");
+
+        // Изменение одного исключения не видно в другом
+        first.addSuppressed(new IllegalStateException());
+        assertEquals(first.getSuppressed().length, 1);
+        assertEquals(second.getSuppressed().length, 0);
+        assertEquals(((StacklessValidationException) first).getFailure(), ValidationFailure.BASE_RADIUS_ORDER);
+    }
+
+    @Test(groups = {"geometry", "validation", "exceptions"})
+    public void testDefaultModeKeepsFullExceptions() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+                () -> geometry.calculateTruncatedConeVolume(-5, 3, 4));
+
+        assertFalse(e instanceof StacklessValidationException);
+        assertTrue(e.getStackTrace().length > 0);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+public class OffHeapConeResultStoreTest {
+
+    private Path spillDirectory;
+    private GeometryCalculator calculator;
+
+    @BeforeMethod(groups = {"geometry", "offheap"})
+    public void setUp() throws IOException {
+        spillDirectory = Files.createTempDirectory("cone-store-test");
+        calculator = new GeometryCalculator();
+    }
+
+    @AfterMethod(groups = {"geometry", "offheap"})
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(spillDirectory);
+    }
+
+    @Test(groups = {"geometry", "offheap"})
+    public void testBatchMatchesArrays() throws IOException {
+        int n = 10_000;
+        double[][] input = randomCones(n, 7);
+        double[] volume = new double[n], lateral = new double[n], total = new double[n], generatrix = new double[n];
+        int expectedInvalid = calculator.calculateAllConeParameters(input[0], input[1], input[2],
+                volume, lateral, total, generatrix, null);
+
+        try (OffHeapConeResultStore store = new OffHeapConeResultStore(1024, 1L << 20, spillDirectory)) {
+            assertEquals(calculator.calculateAllConeParameters(input[0], input[1], input[2], store), expectedInvalid);
+            assertEquals(store.size(), n);
+
+            GeometryCalculator.MutableConeResults row = new GeometryCalculator.MutableConeResults();
+            for (int i = 0; i < n; i++) {
+                assertEquals(store.getVolume(i), volume[i], 0.0);
+                assertEquals(store.getLateralSurfaceArea(i), lateral[i], 0.0);
+                assertEquals(store.getTotalSurfaceArea(i), total[i], 0.0);
+                assertEquals(store.getGeneratrix(i), generatrix[i], 0.0);
+                assertEquals(store.isValid(i), !Double.isNaN(volume[i]));
+                assertEquals(store.get(i, row).getGeneratrix(), generatrix[i], 0.0);
+            }
+        }
+    }
+
+    @Test(groups = {"geometry", "offheap"})
+    public void testSpillToFile() throws IOException {
+        int n = 5000;
+        double[][] input = randomCones(n, 11);
+        // Бюджет на два блока по 512 строк, остальное уходит в файл подкачки
+        long budget = 2L * 512 * 32;
+        try (OffHeapConeResultStore store = new OffHeapConeResultStore(512, budget, spillDirectory)) {
+            calculator.calculateAllConeParameters(input[0], input[1], input[2], store);
+            assertEquals(store.getOffHeapBytes(), budget);
+            assertTrue(store.getSpilledBytes() > 0);
+            assertEquals(countFiles(), 1);
+
+            for (int i = 0; i < n; i++) {
+                if (GeometryCalculator.isValidCone(input[0][i], input[1][i], input[2][i])) {
+                    assertEquals(store.getVolume(i),
+                            calculator.calculateTruncatedConeVolume(input[0][i], input[1][i], input[2][i]), 0.0);
+                } else {
+                    assertFalse(store.isValid(i));
+                }
+            }
+        }
+        assertEquals(countFiles(), 0, "Файл подкачки должен удаляться при закрытии");
+    }
+
+    @Test(groups = {"geometry", "offheap"})
+    public void testScanAndAggregate() throws IOException {
+        int n = 3000;
+        double[][] input = randomCones(n, 3);
+        try (OffHeapConeResultStore store = new OffHeapConeResultStore(256, 4L * 256 * 32, spillDirectory)) {
+            calculator.calculateAllConeParameters(input[0], input[1], input[2], store);
+
+            ConeAggregate expected = new ConeAggregate();
+            for (int i = 0; i < n; i++) {
+                if (store.isValid(i)) {
+                    expected.add(store.getVolume(i), store.getTotalSurfaceArea(i));
+                } else {
+                    expected.addInvalid();
+                }
+            }
+            ConeAggregate actual = store.aggregate();
+            assertEquals(actual.getCount(), expected.getCount());
+            assertEquals(actual.getInvalidCount(), expected.getInvalidCount());
+            assertEquals(actual.getVolumeSum(), expected.getVolumeSum(), 1e-6);
+            assertEquals(actual.getAreaMax(), expected.getAreaMax(), 0.0);
+
+            ConeAggregate merged = store.aggregate(0, 1000).merge(store.aggregate(1000, n));
+            assertEquals(merged.getCount(), expected.getCount());
+            assertEquals(merged.getVolumeSum(), expected.getVolumeSum(), 1e-6);
+
+            long[] visited = {0};
+            double[] sum = {0};
+            store.scan(250, 2750, (index, volume, lateral, total, generatrix) -> {
+                assertEquals(index, 250 + visited[0]);
+                visited[0]++;
+                if (!Double.isNaN(volume)) sum[0] += volume;
+            });
+            assertEquals(visited[0], 2500);
+            ConeAggregate range = store.aggregate(250, 2750);
+            assertEquals(sum[0], range.getVolumeSum(), 1e-6);
+        }
+    }
+
+    @Test(groups = {"geometry", "offheap"})
+    public void testCloseReleasesChunksAndSpillFile() throws IOException {
+        OffHeapConeResultStore store = new OffHeapConeResultStore(16, 0, spillDirectory);
+        for (int i = 0; i < 100; i++) {
+            store.append(i, i, i, i);
+        }
+        assertEquals(countFiles(), 1);
+
+        store.close();
+        store.close();
+        assertEquals(store.size(), 0);
+        assertEquals(countFiles(), 0);
+        expectThrows(IndexOutOfBoundsException.class, () -> store.getVolume(0));
+        expectThrows(IllegalStateException.class, () -> store.append(1, 2, 3, 4));
+    }
+
+    @Test(groups = {"geometry", "offheap"}, expectedExceptions = IndexOutOfBoundsException.class)
+    public void testOutOfRangeRead() throws IOException {
+        try (OffHeapConeResultStore store = new OffHeapConeResultStore(16, 1024, spillDirectory)) {
+            store.append(1, 2, 3, 4);
+            store.getVolume(1);
+        }
+    }
+
+    @Test(groups = {"geometry", "offheap"}, expectedExceptions = IllegalArgumentException.class)
+    public void testChunkSizeMustBePowerOfTwo() {
+        new OffHeapConeResultStore(1000, 1024, spillDirectory);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static double[][] randomCones(int n, long seed) {
+        Random random = new Random(seed);
+        double[] R = new double[n], r = new double[n], h = new double[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = 0.1 + random.nextDouble() * 10;
+            R[i] = r[i] + 0.1 + random.nextDouble() * 10;
+            h[i] = 0.1 + random.nextDouble() * 10;
+            if (i % 17 == 0) {
+                R[i] = r[i] / 2;
+            }
+        }
+        return new double[][]{R, r, h};
+    }
+}
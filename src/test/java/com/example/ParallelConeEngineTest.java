@@ -0,0 +1,81 @@
+package com.example;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class ParallelConeEngineTest {
+
+    private ParallelConeEngine engine;
+
+    @BeforeClass(groups = {"geometry", "parallel"})
+    public void setUp() {
+        engine = new ParallelConeEngine(4);
+    }
+
+    @AfterClass(groups = {"geometry", "parallel"}, alwaysRun = true)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Test(groups = {"geometry", "parallel"})
+    public void testAggregateMatchesSequentialCalculation() {
+        int n = 100_000;
+        double[] R = new double[n];
+        double[] r = new double[n];
+        double[] h = new double[n];
+        for (int i = 0; i < n; i++) {
+            R[i] = 2.0 + (i % 97);
+            r[i] = 1.0 + (i % 89) * 0.01;
+            h[i] = 1.0 + (i % 13);
+        }
+        // Каждая тысячная строка некорректна (R <= r)
+        for (int i = 0; i < n; i += 1000) {
+            r[i] = R[i];
+        }
+
+        GeometryCalculator geometry = new GeometryCalculator();
+        double volumeSum = 0;
+        double volumeMax = 0;
+        double areaMin = Double.MAX_VALUE;
+        int invalid = 0;
+        for (int i = 0; i < n; i++) {
+            if (R[i] <= r[i]) {
+                invalid++;
+                continue;
+            }
+            GeometryCalculator.ConeResults results = geometry.calculateAllConeParameters(R[i], r[i], h[i]);
+            volumeSum += results.getVolume();
+            volumeMax = Math.max(volumeMax, results.getVolume());
+            areaMin = Math.min(areaMin, results.getTotalSurfaceArea());
+        }
+
+        double[] volume = new double[n];
+        ConeAggregate aggregate = engine.calculate(R, r, h, volume, null, null, null);
+
+        assertEquals(aggregate.getInvalidCount(), invalid, "Неверное количество некорректных строк");
+        assertEquals(aggregate.getCount(), n - invalid);
+        assertEquals(aggregate.getVolumeSum(), volumeSum, volumeSum * 1e-12, "Сумма объемов не совпадает");
+        assertEquals(aggregate.getVolumeMax(), volumeMax, 0.001);
+        assertEquals(aggregate.getAreaMin(), areaMin, 0.001);
+        assertTrue(Double.isNaN(volume[0]), "Для некорректной строки ожидается NaN");
+        assertEquals(volume[1], geometry.calculateTruncatedConeVolume(R[1], r[1], h[1]), 0.001);
+    }
+
+    @Test(groups = {"geometry", "parallel"})
+    public void testSmallInputIsNotSplit() {
+        assertEquals(ParallelConeEngine.splitThreshold(100, 8), ParallelConeEngine.MIN_CHUNK);
+        assertEquals(ParallelConeEngine.splitThreshold(32_000_000, 8), 1_000_000);
+
+        ConeAggregate aggregate = engine.aggregate(new double[] {5.0}, new double[] {3.0}, new double[] {4.0});
+        assertEquals(aggregate.getCount(), 1);
+        assertEquals(aggregate.getVolumeMin(), aggregate.getVolumeMax(), 0.0);
+    }
+
+    @Test(groups = {"geometry", "parallel", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testNonPositiveParallelism() {
+        new ParallelConeEngine(0);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * Подстраивает параллельность наборов под машину: число потоков для методов и для
+ * параллельных DataProvider равно числу ядер (или свойству -Dtest.threads).
+ * Значения thread-count и data-provider-thread-count из XML при этом заменяются.
+ */
+public class ParallelismSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = Integer.getInteger("test.threads", Runtime.getRuntime().availableProcessors());
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Число потоков тестов должно быть положительным");
+        }
+        for (XmlSuite suite : suites) {
+            suite.setThreadCount(threads);
+            suite.setDataProviderThreadCount(threads);
+            for (XmlTest test : suite.getTests()) {
+                test.setThreadCount(threads);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.*;
+
+public class RateTableTest {
+
+    private RateTable rates;
+    private CurrencyConverter converter;
+
+    @BeforeMethod(groups = {"currency", "rates"})
+    public void setUp() {
+        rates = new RateTable(new RateSnapshot(1, 75.0, 85.0, Collections.singletonMap("CNY", 10.5)));
+        converter = new CurrencyConverter(rates);
+    }
+
+    @Test(groups = {"currency", "rates"})
+    public void testConversionsUseCurrentSnapshot() {
+        assertEquals(converter.convertToUSD(7500), 100.0, 0.001);
+        assertEquals(converter.convertToEUR(8500), 100.0, 0.001);
+
+        rates.publish(new RateSnapshot(2, 80.0, 90.0));
+        assertEquals(converter.convertToUSD(8000), 100.0, 0.001, "Должен использоваться новый снимок");
+        assertEquals(converter.calculateConversionLossWithCommission(10000, 1.0),
+                converter.calculateConversionLossWithCommission(10000, 80.0, 90.0, 1.0), 0.001);
+    }
+
+    @Test(groups = {"currency", "rates"})
+    public void testExplicitSnapshotForReplay() {
+        RateSnapshot old = rates.current();
+        rates.updateRate("USD", 100.0);
+
+        assertEquals(converter.convertToUSD(7500, old), 100.0, 0.001, "Старый снимок должен давать старый курс");
+        assertEquals(converter.calculateConversionLoss(10000, old),
+                converter.calculateConversionLoss(10000, 75.0, 85.0), 0.001);
+    }
+
+    @Test(groups = {"currency", "rates"})
+    public void testUpdateRateIncrementsVersionAndKeepsOtherRates() {
+        RateSnapshot next = rates.updateRate("CNY", 11.0);
+
+        assertEquals(next.getVersion(), 2);
+        assertEquals(next.getRate("CNY"), 11.0, 0.0);
+        assertEquals(next.getUsdRate(), 75.0, 0.0);
+        assertSame(rates.current(), next);
+    }
+
+    @Test(groups = {"currency", "rates", "exceptions"},
+            expectedExceptions = IllegalStateException.class)
+    public void testConverterWithoutRateTable() {
+        new CurrencyConverter().convertToUSD(100);
+    }
+
+    @Test(groups = {"currency", "rates", "exceptions"},
+            expectedExceptions = IllegalArgumentException.class)
+    public void testSnapshotRejectsNonPositiveRate() {
+        new RateSnapshot(1, 0.0, 85.0);
+    }
+
+    @Test(groups = {"currency", "rates"})
+    public void testReadersSeeConsistentSnapshots() throws Exception {
+        // Писатель публикует снимки, где курс евро всегда ровно вдвое больше курса доллара
+        rates.publish(new RateSnapshot(0, 1.0, 2.0));
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                started.countDown();
+                for (int i = 1; i <= 100_000; i++) {
+                    rates.publish(new RateSnapshot(i, i, 2.0 * i));
+                }
+                stop.set(true);
+            });
+            Future<?>[] readers = new Future<?>[3];
+            for (int t = 0; t < readers.length; t++) {
+                readers[t] = executor.submit(() -> {
+                    started.countDown();
+                    while (!stop.get()) {
+                        RateSnapshot snapshot = rates.current();
+                        assertEquals(snapshot.getEurRate(), 2.0 * snapshot.getUsdRate(), 0.0,
+                                "Снимок версии " + snapshot.getVersion() + " не согласован");
+                    }
+                });
+            }
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(rates.current().getVersion(), 100_000);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class SolidOfRevolutionCalculatorTest {
+
+    private SolidOfRevolutionCalculator calculator;
+    private GeometryCalculator geometry;
+
+    @BeforeMethod(groups = {"geometry", "revolution"})
+    public void setUp() {
+        calculator = new SolidOfRevolutionCalculator();
+        geometry = new GeometryCalculator();
+    }
+
+    @Test(groups = {"geometry", "revolution"})
+    public void testCylinderAndCone() {
+        SolidOfRevolutionCalculator.Results cylinder = calculator.calculate(new double[]{0, 4}, new double[]{2, 2});
+        assertEquals(cylinder.getVolume(), Math.PI * 4 * 4, 1e-9);
+        assertEquals(cylinder.getLateralSurfaceArea(), 2 * Math.PI * 2 * 4, 1e-9);
+        assertEquals(cylinder.getTotalSurfaceArea(), 2 * Math.PI * 2 * 4 + 2 * Math.PI * 4, 1e-9);
+
+        SolidOfRevolutionCalculator.Results cone = calculator.calculate(new double[]{0, 4}, new double[]{3, 0});
+        assertEquals(cone.getVolume(), Math.PI * 9 * 4 / 3, 1e-9);
+        assertEquals(cone.getLateralSurfaceArea(), Math.PI * 3 * 5, 1e-9);
+        assertEquals(cone.getTotalSurfaceArea(), Math.PI * 3 * 5 + Math.PI * 9, 1e-9);
+    }
+
+    @Test(groups = {"geometry", "revolution"})
+    public void testFrustumMatchesGeometryCalculator() {
+        SolidOfRevolutionCalculator.Results frustum = calculator.calculate(new double[]{1, 5}, new double[]{5, 3});
+        GeometryCalculator.ConeResults expected = geometry.calculateAllConeParameters(5, 3, 4);
+        assertEquals(frustum.getVolume(), expected.getVolume(), 1e-9);
+        assertEquals(frustum.getLateralSurfaceArea(), expected.getLateralSurfaceArea(), 1e-9);
+        assertEquals(frustum.getTotalSurfaceArea(), expected.getTotalSurfaceArea(), 1e-9);
+    }
+
+    @Test(groups = {"geometry", "revolution"})
+    public void testStackedFrustumsWithStep() {
+        // Два конуса основаниями друг к другу и уступ: 5 -> 3 (h=4), уступ 3 -> 2, 2 -> 1 (h=2)
+        double[] z = {0, 4, 4, 6};
+        double[] radius = {5, 3, 2, 1};
+        SolidOfRevolutionCalculator.Results stacked = calculator.calculate(z, radius);
+
+        double volume = geometry.calculateTruncatedConeVolume(5, 3, 4) + geometry.calculateTruncatedConeVolume(2, 1, 2);
+        double lateral = geometry.calculateTruncatedConeLateralSurfaceArea(5, 3, 4)
+                + geometry.calculateTruncatedConeLateralSurfaceArea(2, 1, 2)
+                + Math.PI * (9 - 4);
+        assertEquals(stacked.getVolume(), volume, 1e-9);
+        assertEquals(stacked.getLateralSurfaceArea(), lateral, 1e-9);
+        assertEquals(stacked.getTotalSurfaceArea(), lateral + Math.PI * (25 + 1), 1e-9);
+    }
+
+    @Test(groups = {"geometry", "revolution"})
+    public void testSphereWithMillionPoints() {
+        int n = 1_000_000;
+        double[] z = new double[n];
+        double[] radius = new double[n];
+        SolidOfRevolutionCalculator.sphericalSegmentProfile(2.0, 4.0, n, z, radius);
+
+        SolidOfRevolutionCalculator.Results sphere = calculator.calculate(z, radius);
+        assertEquals(sphere.getVolume(), 4.0 / 3.0 * Math.PI * 8, 1e-6);
+        assertEquals(sphere.getTotalSurfaceArea(), 4 * Math.PI * 4, 1e-3);
+    }
+
+    @Test(groups = {"geometry", "revolution"})
+    public void testSphericalSegment() {
+        int n = 20_001;
+        double[] z = new double[n];
+        double[] radius = new double[n];
+        double R = 3, h = 1;
+        SolidOfRevolutionCalculator.sphericalSegmentProfile(R, h, n, z, radius);
+
+        SolidOfRevolutionCalculator.Results segment = calculator.calculate(z, radius);
+        assertEquals(segment.getVolume(), Math.PI * h * h * (3 * R - h) / 3, 1e-6);
+        // Площадь сферической шапки 2πRh плюс круг основания радиуса √(h(2R-h))
+        assertEquals(segment.getLateralSurfaceArea(), 2 * Math.PI * R * h, 1e-3);
+        assertEquals(segment.getTotalSurfaceArea(), 2 * Math.PI * R * h + Math.PI * h * (2 * R - h), 1e-3);
+    }
+
+    @Test(groups = {"geometry", "revolution"})
+    public void testUniformAndStreamingAgree() {
+        double[] radius = {1, 2, 2.5, 2, 1.5, 0.5};
+        double[] z = new double[radius.length];
+        SolidOfRevolutionCalculator.Accumulator acc = new SolidOfRevolutionCalculator.Accumulator();
+        for (int i = 0; i < radius.length; i++) {
+            z[i] = i * 0.5;
+            acc.add(z[i], radius[i]);
+        }
+        SolidOfRevolutionCalculator.Results arrays = calculator.calculate(z, radius);
+        SolidOfRevolutionCalculator.Results uniform = calculator.calculateUniform(radius, 0.5);
+        SolidOfRevolutionCalculator.Results streamed = acc.toResults();
+
+        assertEquals(uniform.getVolume(), arrays.getVolume(), 1e-12);
+        assertEquals(streamed.getVolume(), arrays.getVolume(), 1e-12);
+        assertEquals(streamed.getTotalSurfaceArea(), arrays.getTotalSurfaceArea(), 1e-12);
+
+        SolidOfRevolutionCalculator.Results part = calculator.calculate(z, radius, 1, 3);
+        assertEquals(part.getVolume(), GeometryCalculator.frustumVolume(2, 2.5, 0.5), 1e-12);
+    }
+
+    @Test(groups = {"geometry", "revolution"}, expectedExceptions = IllegalArgumentException.class)
+    public void testDecreasingCoordinatesRejected() {
+        calculator.calculate(new double[]{0, 2, 1}, new double[]{1, 1, 1});
+    }
+
+    @Test(groups = {"geometry", "revolution"}, expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeRadiusRejected() {
+        calculator.calculate(new double[]{0, 1}, new double[]{1, -1});
+    }
+
+    @Test(groups = {"geometry", "revolution"}, expectedExceptions = IllegalArgumentException.class)
+    public void testSinglePointRejected() {
+        calculator.calculate(new double[]{0}, new double[]{1});
+    }
+}
@@ -0,0 +1,36 @@
+package com.example;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Делит тестовые методы между машинами: при -Dtest.shard.count=N -Dtest.shard.index=i
+ * запускаются только методы, у которых хеш имени "класс.метод" по модулю N равен i.
+ * Без этих свойств выполняются все методы.
+ */
+public class TestShardInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int count = Integer.getInteger("test.shard.count", 1);
+        int index = Integer.getInteger("test.shard.index", 0);
+        if (count <= 0 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Номер шарда должен быть от 0 до test.shard.count - 1");
+        }
+        if (count == 1) {
+            return methods;
+        }
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            String name = method.getMethod().getRealClass().getName() + "." + method.getMethod().getMethodName();
+            if (Math.floorMod(name.hashCode(), count) == index) {
+                selected.add(method);
+            }
+        }
+        return selected;
+    }
+}
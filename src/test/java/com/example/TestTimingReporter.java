@@ -0,0 +1,100 @@
+package com.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Отчет о времени выполнения тестов: по каждому методу и по каждой группе.
+ * Пишется в test-timings.csv в каталоге отчетов TestNG, самые медленные методы выводятся в лог.
+ * Файл удобно сравнивать между запусками, чтобы замечать замедление самого набора тестов.
+ */
+public class TestTimingReporter implements IReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(TestTimingReporter.class);
+
+    static final String REPORT_FILE = "test-timings.csv";
+    private static final int SLOWEST_LOGGED = 10;
+
+    /**
+     * Накопленное время одного метода или группы
+     */
+    static class Timing {
+        long invocations;
+        long failures;
+        long totalMillis;
+        long maxMillis;
+
+        void add(ITestResult result) {
+            long millis = result.getEndMillis() - result.getStartMillis();
+            invocations++;
+            if (result.getStatus() == ITestResult.FAILURE) failures++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+    }
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        Map<String, Timing> methods = new TreeMap<>();
+        Map<String, Timing> groups = new TreeMap<>();
+
+        for (ISuite suite : suites) {
+            for (ISuiteResult suiteResult : suite.getResults().values()) {
+                ITestContext context = suiteResult.getTestContext();
+                List<ITestResult> results = new ArrayList<>();
+                results.addAll(context.getPassedTests().getAllResults());
+                results.addAll(context.getFailedTests().getAllResults());
+                results.addAll(context.getSkippedTests().getAllResults());
+                for (ITestResult result : results) {
+                    String method = result.getMethod().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+                    methods.computeIfAbsent(method, k -> new Timing()).add(result);
+                    for (String group : result.getMethod().getGroups()) {
+                        groups.computeIfAbsent(group, k -> new Timing()).add(result);
+                    }
+                }
+            }
+        }
+
+        Path report = Paths.get(outputDirectory, REPORT_FILE);
+        List<String> lines = new ArrayList<>();
+        lines.add("kind,name,invocations,failures,total_ms,max_ms");
+        methods.forEach((name, t) -> lines.add(line("method", name, t)));
+        groups.forEach((name, t) -> lines.add(line("group", name, t)));
+        try {
+            Files.createDirectories(report.getParent());
+            Files.write(report, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать отчет о времени тестов", e);
+        }
+
+        log.info("Время тестов записано в {}", report);
+        methods.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().totalMillis, a.getValue().totalMillis))
+                .limit(SLOWEST_LOGGED)
+                .forEach(e -> log.info("{}: {} мс за {} вызовов", e.getKey(), e.getValue().totalMillis,
+                        e.getValue().invocations));
+    }
+
+    private static String line(String kind, String name, Timing t) {
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d", kind, name, t.invocations, t.failures,
+                t.totalMillis, t.maxMillis);
+    }
+}